@@ -0,0 +1,224 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.cluster;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+
+import ortus.boxlang.runtime.cache.providers.ICacheProvider;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * Lease-based ownership of feed refreshes across the nodes of a cluster, so each feed is fetched by one node and its result
+ * read by the others.
+ * <p>
+ * A node that finds no result younger than {@code refreshSeconds} in the shared store claims the lease of the feed. If no other
+ * node holds a live lease, it becomes the owner: it reads the feed and publishes the result, which renews its lease for
+ * {@code leaseSeconds}. The other nodes read the published result, stale until the owner refreshes it. A lease expires when its
+ * owner stops refreshing (the node is gone) and is dropped at once when the owner fails to read the feed, so the next node
+ * takes over.
+ * <p>
+ * Cache providers offer no compare-and-set: a lease is written, then read back to check that no other node wrote it in
+ * between. Two nodes may still both read a feed once when they claim it at the same instant, which only costs one extra fetch.
+ */
+public final class PollCoordinator {
+
+	// Claim statuses
+	public static final String	OWNER			= "owner";
+	public static final String	SHARED			= "shared";
+	public static final String	STALE			= "stale";
+	public static final String	LOCAL			= "local";
+
+	private static final String	LEASE_PREFIX	= "bxrss-lease-";
+	private static final String	RESULT_PREFIX	= "bxrss-result-";
+	private static final String	NODE_ID			= ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring( 0, 8 );
+
+	private final SharedStore	store;
+	private final String		nodeId;
+	private final Clock			clock;
+
+	/**
+	 * The outcome of a claim.
+	 *
+	 * @param status      owner (read the feed, then publish), shared (fresh result of another node, or of this one), stale (the
+	 *                    owner has not refreshed the result yet) or local (nothing published and the lease is held elsewhere:
+	 *                    read the feed without publishing)
+	 * @param node        The node that claimed
+	 * @param result      The published result, or null
+	 * @param publishedAt When the result was published, in epoch millis, 0 if none
+	 * @param publishedBy The node that published it, empty if none
+	 */
+	public record Claim( String status, String node, Object result, long publishedAt, String publishedBy ) {
+
+		/**
+		 * @return Whether this node must read the feed and publish the result
+		 */
+		public boolean isOwner() {
+			return OWNER.equals( status );
+		}
+
+		/**
+		 * @return The claim as a struct: status, node, publishedAt and publishedBy
+		 */
+		public IStruct toStruct() {
+			return Struct.linkedOf(
+			    "status", status,
+			    "node", node,
+			    "publishedAt", publishedAt == 0 ? "" : Instant.ofEpochMilli( publishedAt ).toString(),
+			    "publishedBy", publishedBy
+			);
+		}
+	}
+
+	/**
+	 * Create a coordinator.
+	 *
+	 * @param store  The store shared by the nodes
+	 * @param nodeId The identity of this node
+	 * @param clock  The time source; the nodes are expected to have synchronized clocks
+	 */
+	public PollCoordinator( SharedStore store, String nodeId, Clock clock ) {
+		this.store	= store;
+		this.nodeId	= nodeId;
+		this.clock	= clock;
+	}
+
+	/**
+	 * @param cache The BoxLang cache provider shared by the nodes
+	 *
+	 * @return A coordinator for this node
+	 */
+	public static PollCoordinator of( ICacheProvider cache ) {
+		return new PollCoordinator( SharedStore.of( cache ), NODE_ID, Clock.systemUTC() );
+	}
+
+	/**
+	 * Find out whether this node must read a feed, or can use the result published by the owner.
+	 *
+	 * @param key            The fingerprint of the read
+	 * @param refreshSeconds How old a published result may get before it is read again
+	 * @param leaseSeconds   How long a lease lasts without being renewed by a publication
+	 *
+	 * @return The claim
+	 */
+	public Claim claim( String key, long refreshSeconds, long leaseSeconds ) {
+		validate( refreshSeconds, leaseSeconds );
+		long	now			= clock.millis();
+		IStruct	published	= published( key );
+		long	publishedAt	= published == null ? 0 : ( ( Number ) published.get( "publishedAt" ) ).longValue();
+		Object	result		= published == null ? null : published.get( "result" );
+		String	publishedBy	= published == null ? "" : String.valueOf( published.get( "node" ) );
+
+		if ( published != null && now - publishedAt < refreshSeconds * 1000 ) {
+			return new Claim( SHARED, nodeId, result, publishedAt, publishedBy );
+		}
+		if ( !heldElsewhere( key, now ) ) {
+			store.set( LEASE_PREFIX + key, lease( now + leaseSeconds * 1000 ), leaseSeconds );
+			// Read back: another node may have written its lease at the same time, the last write wins
+			if ( !heldElsewhere( key, now ) ) {
+				return new Claim( OWNER, nodeId, result, publishedAt, publishedBy );
+			}
+		}
+		return new Claim( published != null ? STALE : LOCAL, nodeId, result, publishedAt, publishedBy );
+	}
+
+	/**
+	 * Publish the result read by the owner, and renew its lease.
+	 *
+	 * @param key            The fingerprint of the read
+	 * @param result         The read result
+	 * @param refreshSeconds How old the result may get before it is read again
+	 * @param leaseSeconds   How long the renewed lease lasts
+	 */
+	public void publish( String key, Object result, long refreshSeconds, long leaseSeconds ) {
+		validate( refreshSeconds, leaseSeconds );
+		long now = clock.millis();
+		// Kept for a lease past its refresh, so the other nodes can serve it stale until the next owner publishes
+		store.set( RESULT_PREFIX + key, Struct.linkedOf( "result", result, "publishedAt", now, "node", nodeId ), refreshSeconds + leaseSeconds );
+		store.set( LEASE_PREFIX + key, lease( now + leaseSeconds * 1000 ), leaseSeconds );
+	}
+
+	/**
+	 * Drop the lease of this node after a failed read, so another node can take over at once.
+	 *
+	 * @param key The fingerprint of the read
+	 */
+	public void release( String key ) {
+		String lease = lease( key );
+		if ( lease != null && nodeId.equals( ownerOf( lease ) ) ) {
+			store.remove( LEASE_PREFIX + key );
+		}
+	}
+
+	/**
+	 * @param key The fingerprint of the read
+	 *
+	 * @return The node holding a live lease on the feed, or null
+	 */
+	public String owner( String key ) {
+		String lease = lease( key );
+		return lease == null || expiresAt( lease ) <= clock.millis() ? null : ownerOf( lease );
+	}
+
+	/**
+	 * @return The identity of this node
+	 */
+	public String nodeId() {
+		return nodeId;
+	}
+
+	private boolean heldElsewhere( String key, long now ) {
+		String lease = lease( key );
+		return lease != null && expiresAt( lease ) > now && !nodeId.equals( ownerOf( lease ) );
+	}
+
+	private IStruct published( String key ) {
+		return store.get( RESULT_PREFIX + key ) instanceof IStruct published ? published : null;
+	}
+
+	private String lease( String key ) {
+		Object lease = store.get( LEASE_PREFIX + key );
+		return lease == null ? null : String.valueOf( lease );
+	}
+
+	// A lease is stored as "<expiresAt>|<nodeId>", a plain string any cache provider can serialize
+	private String lease( long expiresAt ) {
+		return expiresAt + "|" + nodeId;
+	}
+
+	private static long expiresAt( String lease ) {
+		try {
+			return Long.parseLong( lease.substring( 0, lease.indexOf( '|' ) ) );
+		} catch ( RuntimeException e ) {
+			return 0;
+		}
+	}
+
+	private static String ownerOf( String lease ) {
+		return lease.substring( lease.indexOf( '|' ) + 1 );
+	}
+
+	private static void validate( long refreshSeconds, long leaseSeconds ) {
+		if ( refreshSeconds < 1 || leaseSeconds < 1 ) {
+			throw new BoxValidationException(
+			    "Invalid cluster refresh [" + refreshSeconds + "] or lease [" + leaseSeconds + "] seconds. Must be 1 or more." );
+		}
+	}
+
+}
@@ -0,0 +1,75 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.cluster;
+
+import java.time.Duration;
+
+import ortus.boxlang.runtime.cache.providers.ICacheProvider;
+import ortus.boxlang.runtime.dynamic.Attempt;
+
+/**
+ * The key/value store shared by the nodes of a cluster, holding the poll leases and the published results.
+ * <p>
+ * {@link #of(ICacheProvider)} adapts a BoxLang cache provider: configure a distributed provider (Redis, Couchbase, ...) for
+ * several servers to coordinate; the default in-memory cache only coordinates the callers of one server.
+ */
+public interface SharedStore {
+
+	/**
+	 * @param key The entry key
+	 *
+	 * @return The value, or null when there is none or it has expired
+	 */
+	Object get( String key );
+
+	/**
+	 * @param key        The entry key
+	 * @param value      The value
+	 * @param ttlSeconds How long the entry is kept
+	 */
+	void set( String key, Object value, long ttlSeconds );
+
+	/**
+	 * @param key The entry key
+	 */
+	void remove( String key );
+
+	/**
+	 * @param cache A BoxLang cache provider
+	 *
+	 * @return A store backed by the provider
+	 */
+	static SharedStore of( ICacheProvider cache ) {
+		return new SharedStore() {
+
+			@Override
+			public Object get( String key ) {
+				Attempt<Object> value = cache.get( key );
+				return value.isPresent() ? value.get() : null;
+			}
+
+			@Override
+			public void set( String key, Object value, long ttlSeconds ) {
+				cache.set( key, value, Duration.ofSeconds( ttlSeconds ) );
+			}
+
+			@Override
+			public void remove( String key ) {
+				cache.clear( key );
+			}
+		};
+	}
+
+}
@@ -0,0 +1,172 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.create;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.IStruct;
+
+/**
+ * A row of the {@code createFeed} data, normalized once for every feed type: the fields are resolved through the column map,
+ * the values converted to strings, the dates parsed and the categories split.
+ * <p>
+ * A single-format feed reads the rows one at a time through {@link #read(FeedRows, int, Fields)}; a multi-format feed
+ * normalizes them once with {@link #all(Object, IStruct)} and writes each format from the same entries.
+ *
+ * @param id          The id, or null
+ * @param title       The title, or null
+ * @param link        The link, or null
+ * @param author      The author, or null
+ * @param content     The content, or null
+ * @param description The description (summary), or null
+ * @param published   The publication date, or null
+ * @param updated     The update date, or null
+ * @param categories  The trimmed, non-empty category names, from an array or a comma separated list
+ */
+public record FeedEntry(
+    String id,
+    String title,
+    String link,
+    String author,
+    String content,
+    String description,
+    DateTime published,
+    DateTime updated,
+    List<String> categories ) {
+
+	private static final Key	ID				= Key.of( "id" );
+	private static final Key	TITLE			= Key.of( "title" );
+	private static final Key	LINK			= Key.of( "link" );
+	private static final Key	AUTHOR			= Key.of( "author" );
+	private static final Key	CONTENT			= Key.of( "content" );
+	private static final Key	DESCRIPTION		= Key.of( "description" );
+	private static final Key	PUBLISHED_DATE	= Key.of( "publishedDate" );
+	private static final Key	UPDATED			= Key.of( "updated" );
+	private static final Key	CATEGORY		= Key.of( "category" );
+
+	/**
+	 * The struct keys or query columns of the feed fields, resolved through the column map once per feed.
+	 */
+	public record Fields( Key id, Key title, Key link, Key author, Key content, Key description, Key published, Key updated, Key category ) {
+
+		/**
+		 * Resolve the feed fields.
+		 *
+		 * @param columnMap Maps feed fields to struct keys or query columns
+		 *
+		 * @return The resolved fields
+		 */
+		public static Fields of( IStruct columnMap ) {
+			return new Fields(
+			    field( columnMap, ID ),
+			    field( columnMap, TITLE ),
+			    field( columnMap, LINK ),
+			    field( columnMap, AUTHOR ),
+			    field( columnMap, CONTENT ),
+			    field( columnMap, DESCRIPTION ),
+			    field( columnMap, PUBLISHED_DATE ),
+			    field( columnMap, UPDATED ),
+			    field( columnMap, CATEGORY )
+			);
+		}
+
+		private static Key field( IStruct columnMap, Key name ) {
+			Object mapped = columnMap.get( name );
+			return isEmpty( mapped ) ? name : Key.of( StringCaster.cast( mapped ) );
+		}
+	}
+
+	/**
+	 * Normalize every row of the feed data.
+	 *
+	 * @param data      The feed data: an array of structs or a query
+	 * @param columnMap Maps feed fields to struct keys or query columns
+	 *
+	 * @return The entries, in the order of the rows
+	 */
+	public static List<FeedEntry> all( Object data, IStruct columnMap ) {
+		FeedRows		rows	= FeedRows.of( data );
+		Fields			fields	= Fields.of( columnMap );
+		List<FeedEntry>	entries	= new ArrayList<>( rows.size() );
+		for ( int row = 0, size = rows.size(); row < size; row++ ) {
+			entries.add( read( rows, row, fields ) );
+		}
+		return entries;
+	}
+
+	/**
+	 * Normalize a row of the feed data.
+	 *
+	 * @param rows   The feed data
+	 * @param row    The 0-based row index
+	 * @param fields The resolved fields
+	 *
+	 * @return The entry
+	 */
+	public static FeedEntry read( FeedRows rows, int row, Fields fields ) {
+		return new FeedEntry(
+		    string( rows.get( row, fields.id() ) ),
+		    string( rows.get( row, fields.title() ) ),
+		    string( rows.get( row, fields.link() ) ),
+		    string( rows.get( row, fields.author() ) ),
+		    string( rows.get( row, fields.content() ) ),
+		    string( rows.get( row, fields.description() ) ),
+		    date( rows.get( row, fields.published() ) ),
+		    date( rows.get( row, fields.updated() ) ),
+		    categories( rows.get( row, fields.category() ) )
+		);
+	}
+
+	/**
+	 * @return The content, else the description: the body of the entry, or null
+	 */
+	public String body() {
+		return content != null ? content : description;
+	}
+
+	private static String string( Object value ) {
+		return value == null ? null : StringCaster.cast( value );
+	}
+
+	private static DateTime date( Object value ) {
+		return isEmpty( value ) ? null : DateTimeCaster.cast( value );
+	}
+
+	private static List<String> categories( Object value ) {
+		if ( isEmpty( value ) ) {
+			return Collections.emptyList();
+		}
+		List<?>			values	= value instanceof List<?> list ? list : List.of( StringCaster.cast( value ).split( "," ) );
+		List<String>	names	= new ArrayList<>( values.size() );
+		for ( Object category : values ) {
+			String name = category == null ? "" : StringCaster.cast( category ).trim();
+			if ( !name.isEmpty() ) {
+				names.add( name );
+			}
+		}
+		return names;
+	}
+
+	private static boolean isEmpty( Object value ) {
+		return value == null || ( value instanceof CharSequence cs && cs.isEmpty() );
+	}
+
+}
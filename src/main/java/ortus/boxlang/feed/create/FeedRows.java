@@ -0,0 +1,128 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.create;
+
+import java.util.List;
+import java.util.Map;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Query;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * Uniform, allocation-free access to the {@code data} of a feed creation: an array of structs or a query.
+ * Query cells are read in place, without converting each row to a struct.
+ */
+public abstract class FeedRows {
+
+	/**
+	 * Wrap the feed data.
+	 *
+	 * @param data An array (list) of structs, or a query
+	 *
+	 * @return The row accessor
+	 */
+	public static FeedRows of( Object data ) {
+		if ( data instanceof Query query ) {
+			return new QueryRows( query );
+		}
+		if ( data instanceof List<?> list ) {
+			return new ListRows( list );
+		}
+		throw new BoxValidationException( "The feed data must be an array of structs or a query." );
+	}
+
+	/**
+	 * @return The number of rows
+	 */
+	public abstract int size();
+
+	/**
+	 * Get a field of a row.
+	 *
+	 * @param row   The 0-based row index
+	 * @param field The field (struct key or column name)
+	 *
+	 * @return The value, or null if the row has no such field
+	 */
+	public abstract Object get( int row, Key field );
+
+	/**
+	 * Get a whole row.
+	 *
+	 * @param row The 0-based row index
+	 *
+	 * @return The row struct, or for queries the row as a struct
+	 */
+	public abstract Object row( int row );
+
+	/**
+	 * Rows backed by an array of structs
+	 */
+	private static final class ListRows extends FeedRows {
+
+		private final List<?> rows;
+
+		ListRows( List<?> rows ) {
+			this.rows = rows;
+		}
+
+		@Override
+		public int size() {
+			return rows.size();
+		}
+
+		@Override
+		public Object get( int row, Key field ) {
+			if ( rows.get( row ) instanceof Map<?, ?> struct ) {
+				return struct.get( field );
+			}
+			throw new BoxValidationException( "Feed item " + ( row + 1 ) + " is not a struct." );
+		}
+
+		@Override
+		public Object row( int row ) {
+			return rows.get( row );
+		}
+	}
+
+	/**
+	 * Rows backed by a query
+	 */
+	private static final class QueryRows extends FeedRows {
+
+		private final Query query;
+
+		QueryRows( Query query ) {
+			this.query = query;
+		}
+
+		@Override
+		public int size() {
+			return query.size();
+		}
+
+		@Override
+		public Object get( int row, Key field ) {
+			return query.hasColumn( field ) ? query.getCell( field, row ) : null;
+		}
+
+		@Override
+		public Object row( int row ) {
+			return query.getRowAsStruct( row );
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.create;
+
+import java.util.List;
+import java.util.Set;
+
+import org.jdom2.CDATA;
+import org.jdom2.Document;
+import org.jdom2.Element;
+import org.jdom2.output.Format;
+import org.jdom2.output.XMLOutputter;
+
+import com.rometools.rome.feed.WireFeed;
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedOutput;
+import com.rometools.rome.io.WireFeedOutput;
+
+/**
+ * Writes the XML document of a ROME feed, optionally with the item bodies as CDATA sections.
+ * <p>
+ * Without CDATA this is {@link SyndFeedOutput}: ROME escapes every text value as it writes it. With CDATA, the JDOM document
+ * ROME builds for the feed is changed before it is written: the text of the {@code description}, {@code content:encoded},
+ * {@code content} and {@code summary} elements of each item (or entry) is replaced by CDATA sections, so large HTML bodies are
+ * written as they are instead of being scanned and escaped. A {@code ]]>} in a body is split across two sections (see
+ * {@link XmlEscaper#cdataSections(String)}). The document is formatted as ROME formats it.
+ */
+public final class FeedXmlOutput {
+
+	private static final Set<String>	ITEMS	= Set.of( "item", "entry" );
+	private static final Set<String>	BODIES	= Set.of( "description", "encoded", "content", "summary" );
+
+	private FeedXmlOutput() {
+	}
+
+	/**
+	 * Write a feed with its current feed type.
+	 *
+	 * @param feed  The feed
+	 * @param cdata Whether the item bodies are written as CDATA sections
+	 *
+	 * @return The XML document
+	 *
+	 * @throws FeedException If ROME cannot generate the feed type
+	 */
+	public static String write( SyndFeed feed, boolean cdata ) throws FeedException {
+		if ( !cdata ) {
+			return new SyndFeedOutput().outputString( feed );
+		}
+		WireFeed	wireFeed	= feed.createWireFeed();
+		Document	document	= new WireFeedOutput().outputJDom( wireFeed );
+		wrapBodies( document.getRootElement() );
+
+		Format format = Format.getPrettyFormat();
+		if ( wireFeed.getEncoding() != null ) {
+			format.setEncoding( wireFeed.getEncoding() );
+		}
+		return new XMLOutputter( format ).outputString( document );
+	}
+
+	/**
+	 * Replace the text of the body elements of the items below an element with CDATA sections.
+	 */
+	private static void wrapBodies( Element element ) {
+		for ( Element child : element.getChildren() ) {
+			if ( !ITEMS.contains( child.getName() ) ) {
+				// RSS items are in the channel, RSS 1.0 items and Atom entries in the root
+				wrapBodies( child );
+				continue;
+			}
+			for ( Element field : child.getChildren() ) {
+				// Markup bodies (Atom xhtml content) are elements, not text
+				if ( BODIES.contains( field.getName() ) && field.getChildren().isEmpty() ) {
+					String text = field.getText();
+					if ( !text.isEmpty() ) {
+						List<CDATA> sections = XmlEscaper.cdataSections( text ).stream().map( CDATA::new ).toList();
+						field.setContent( sections );
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.create;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Query;
+
+/**
+ * A bounded LRU cache of generated feed documents, keyed by a fingerprint of the {@code createFeed} inputs.
+ * <p>
+ * The fingerprint covers the feed properties, the column map, the feed type, the escaping and CDATA flags and the data. For the
+ * data, when the rows have an {@code updated} field (or the column mapped to {@code updated} in the column map) only the row
+ * count and the maximum updated date are used, so a lookup costs one pass over a single column: that column must change
+ * whenever an entry changes. Otherwise every field of every row is hashed, which is still far cheaper than building and
+ * serializing the feed.
+ * <p>
+ * Entries hold the serialized document, its UTF-8 bytes, a strong ETag (SHA-256 of the bytes) and a Last-Modified value, so hot
+ * feeds can be served, and answered with 304, with a single lookup.
+ */
+public final class GeneratedFeedCache {
+
+	/**
+	 * The default maximum number of cached documents
+	 */
+	public static final int							DEFAULT_MAX_ENTRIES	= 256;
+
+	private static final Key						UPDATED				= Key.of( "updated" );
+	private static final DateTimeFormatter			HTTP_DATE			= DateTimeFormatter.RFC_1123_DATE_TIME.withZone( ZoneOffset.UTC );
+	private static final GeneratedFeedCache			SHARED				= new GeneratedFeedCache( DEFAULT_MAX_ENTRIES );
+
+	private final LinkedHashMap<String, Entry>		entries;
+	private volatile int							maxEntries;
+
+	/**
+	 * The fingerprint of a set of inputs.
+	 *
+	 * @param key          The cache key
+	 * @param lastModified The maximum updated date of the data in epoch millis, or 0 when the data has no updated field
+	 */
+	public record Fingerprint( String key, long lastModified ) {
+	}
+
+	/**
+	 * A cached feed document.
+	 *
+	 * @param content      The serialized document
+	 * @param bytes        The UTF-8 bytes of the document
+	 * @param etag         The strong ETag, quoted
+	 * @param lastModified The Last-Modified time in epoch millis
+	 */
+	public record Entry( String content, byte[] bytes, String etag, long lastModified ) {
+
+		/**
+		 * @return The Last-Modified value formatted as an HTTP date
+		 */
+		public String lastModifiedHttpDate() {
+			return HTTP_DATE.format( Instant.ofEpochMilli( lastModified ) );
+		}
+	}
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maxEntries The maximum number of cached documents
+	 */
+	public GeneratedFeedCache( int maxEntries ) {
+		this.maxEntries	= maxEntries;
+		this.entries	= new LinkedHashMap<>( 16, 0.75f, true );
+	}
+
+	/**
+	 * @return The module-wide cache instance
+	 */
+	public static GeneratedFeedCache shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Compute the fingerprint of the feed inputs.
+	 *
+	 * @param properties  The feed properties
+	 * @param data        The feed data: an array of structs or a query
+	 * @param columnMap   The column map
+	 * @param feedType    The feed type
+	 * @param escapeChars Whether characters are escaped
+	 * @param cdata       Whether the item bodies are written as CDATA sections
+	 *
+	 * @return The fingerprint
+	 */
+	public static Fingerprint fingerprint( IStruct properties, Object data, IStruct columnMap, String feedType, boolean escapeChars, boolean cdata ) {
+		MessageDigest digest = sha256();
+		update( digest, feedType );
+		update( digest, String.valueOf( escapeChars ) );
+		if ( cdata ) {
+			// Only added when set, so the keys of the other documents do not change
+			update( digest, "cdata" );
+		}
+		updateStruct( digest, properties );
+		updateStruct( digest, columnMap );
+
+		FeedRows	rows			= FeedRows.of( data );
+		int			size			= rows.size();
+		Key			updatedField	= columnMap.containsKey( UPDATED ) ? Key.of( StringCaster.cast( columnMap.get( UPDATED ) ) ) : UPDATED;
+		long		lastModified	= 0;
+		boolean		hasUpdated		= size > 0 && rows.get( 0, updatedField ) != null;
+
+		update( digest, String.valueOf( size ) );
+		if ( hasUpdated ) {
+			// Row count + max updated: one column scan
+			for ( int row = 0; row < size; row++ ) {
+				Object value = rows.get( row, updatedField );
+				if ( value != null && !"".equals( value ) ) {
+					lastModified = Math.max( lastModified, DateTimeCaster.cast( value ).toEpochMillis() );
+				}
+			}
+			update( digest, String.valueOf( lastModified ) );
+		} else {
+			// Content hash of every field
+			for ( int row = 0; row < size; row++ ) {
+				update( digest, "\u001E" );
+				updateValue( digest, data instanceof Query query ? rowValues( query, row ) : rows.row( row ) );
+			}
+		}
+
+		return new Fingerprint( HexFormat.of().formatHex( digest.digest() ), lastModified );
+	}
+
+	/**
+	 * Get a cached document.
+	 *
+	 * @param key The fingerprint key
+	 *
+	 * @return The entry or null
+	 */
+	public Entry get( String key ) {
+		synchronized ( entries ) {
+			return entries.get( key );
+		}
+	}
+
+	/**
+	 * Cache a generated document.
+	 *
+	 * @param key          The fingerprint key
+	 * @param content      The serialized document
+	 * @param lastModified The Last-Modified time in epoch millis, or 0 to use the current time
+	 *
+	 * @return The cached entry
+	 */
+	public Entry put( String key, String content, long lastModified ) {
+		byte[]	bytes	= content.getBytes( StandardCharsets.UTF_8 );
+		String	etag	= "\"" + HexFormat.of().formatHex( sha256().digest( bytes ) ) + "\"";
+		// HTTP dates have a one second resolution
+		long	modified	= ( lastModified > 0 ? lastModified : System.currentTimeMillis() ) / 1000 * 1000;
+		Entry	entry		= new Entry( content, bytes, etag, modified );
+		synchronized ( entries ) {
+			entries.put( key, entry );
+			while ( entries.size() > maxEntries ) {
+				entries.remove( entries.keySet().iterator().next() );
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Change the maximum number of cached documents.
+	 *
+	 * @param maxEntries The new maximum
+	 */
+	public void setMaxEntries( int maxEntries ) {
+		this.maxEntries = Math.max( 1, maxEntries );
+	}
+
+	/**
+	 * @return The number of cached documents
+	 */
+	public int size() {
+		synchronized ( entries ) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Remove every cached document.
+	 */
+	public void clear() {
+		synchronized ( entries ) {
+			entries.clear();
+		}
+	}
+
+	/**
+	 * The values of a query row, read in place.
+	 */
+	private static List<Object> rowValues( Query query, int row ) {
+		List<Object> values = new ArrayList<>();
+		for ( Key column : query.getColumns().keySet() ) {
+			values.add( column.getName() );
+			values.add( query.getCell( column, row ) );
+		}
+		return values;
+	}
+
+	private static void updateStruct( MessageDigest digest, IStruct struct ) {
+		// Key order must not change the fingerprint
+		struct.keySet().stream()
+		    .sorted( ( a, b ) -> a.getName().compareToIgnoreCase( b.getName() ) )
+		    .forEach( key -> {
+			    update( digest, "\u001F" + key.getName().toLowerCase() + "=" );
+			    updateValue( digest, struct.get( key ) );
+		    } );
+	}
+
+	private static void updateValue( MessageDigest digest, Object value ) {
+		if ( value instanceof IStruct struct ) {
+			update( digest, "{" );
+			updateStruct( digest, struct );
+			update( digest, "}" );
+		} else if ( value instanceof Map<?, ?> map ) {
+			update( digest, "{" );
+			map.forEach( ( k, v ) -> {
+				update( digest, "\u001F" + k + "=" );
+				updateValue( digest, v );
+			} );
+			update( digest, "}" );
+		} else if ( value instanceof Iterable<?> iterable ) {
+			update( digest, "[" );
+			for ( Object v : iterable ) {
+				updateValue( digest, v );
+				update( digest, "," );
+			}
+			update( digest, "]" );
+		} else if ( value instanceof DateTime date ) {
+			update( digest, String.valueOf( date.toEpochMillis() ) );
+		} else {
+			update( digest, String.valueOf( value ) );
+		}
+	}
+
+	private static void update( MessageDigest digest, String value ) {
+		digest.update( value.getBytes( StandardCharsets.UTF_8 ) );
+	}
+
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance( "SHA-256" );
+		} catch ( NoSuchAlgorithmException e ) {
+			throw new IllegalStateException( "SHA-256 is not available", e );
+		}
+	}
+
+}
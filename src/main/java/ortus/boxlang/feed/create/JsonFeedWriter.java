@@ -0,0 +1,275 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.create;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.IStruct;
+
+/**
+ * Writes a <a href="https://www.jsonfeed.org/version/1.1/">JSON Feed 1.1</a> document straight from the {@code createFeed}
+ * inputs, for {@code feedType="json_1.1"}.
+ * <p>
+ * Rows are read in place through {@link FeedRows} and each item is appended to the document as soon as it is read: there is no
+ * ROME object graph and no intermediate struct or JSON tree. Fields are normalized by {@link FeedEntry}, the same way as for the XML feed types;
+ * a multi-format feed writes the JSON document from the entries it normalized once for every format.
+ * <p>
+ * Mapping:
+ * <ul>
+ * <li>Properties: {@code title}, {@code link} ({@code home_page_url}), {@code feedUrl} ({@code feed_url}), {@code description},
+ * {@code language}, {@code icon}, {@code favicon} and {@code author} ({@code authors})</li>
+ * <li>Items: {@code id} (falls back to the link, then the row number), {@code link} ({@code url}), {@code title}, {@code content}
+ * ({@code content_html}, falls back to the description), {@code description} ({@code summary}, when there is content),
+ * {@code publishedDate} ({@code date_published}), {@code updated} ({@code date_modified}), {@code author} ({@code authors}) and
+ * {@code category} ({@code tags}, an array or a comma separated list)</li>
+ * </ul>
+ */
+public final class JsonFeedWriter {
+
+	/**
+	 * The feed type handled by this writer
+	 */
+	public static final String				FEED_TYPE	= "json_1.1";
+
+	/**
+	 * The JSON Feed version URL
+	 */
+	public static final String				VERSION		= "https://jsonfeed.org/version/1.1";
+
+	private static final DateTimeFormatter	RFC_3339	= DateTimeFormatter.ISO_OFFSET_DATE_TIME;
+	private static final char[]				HEX			= "0123456789abcdef".toCharArray();
+
+	private static final Key				TITLE		= Key.of( "title" );
+	private static final Key				LINK		= Key.of( "link" );
+	private static final Key				FEED_URL	= Key.of( "feedUrl" );
+	private static final Key				DESCRIPTION	= Key.of( "description" );
+	private static final Key				LANGUAGE	= Key.of( "language" );
+	private static final Key				ICON		= Key.of( "icon" );
+	private static final Key				FAVICON		= Key.of( "favicon" );
+	private static final Key				AUTHOR		= Key.of( "author" );
+
+	private JsonFeedWriter() {
+	}
+
+	/**
+	 * Whether the feed type is handled by this writer.
+	 *
+	 * @param feedType The requested feed type
+	 *
+	 * @return True for {@code json_1.1} (or {@code json}), case-insensitive
+	 */
+	public static boolean handles( String feedType ) {
+		return FEED_TYPE.equalsIgnoreCase( feedType ) || "json".equalsIgnoreCase( feedType );
+	}
+
+	/**
+	 * Serialize the feed to a string.
+	 *
+	 * @param properties The feed properties
+	 * @param data       The feed data: an array of structs or a query
+	 * @param columnMap  Maps feed fields to struct keys or query columns
+	 *
+	 * @return The JSON Feed document
+	 */
+	public static String write( IStruct properties, Object data, IStruct columnMap ) {
+		FeedRows			rows	= FeedRows.of( data );
+		FeedEntry.Fields	fields	= FeedEntry.Fields.of( columnMap );
+		StringWriter		out		= new StringWriter( 512 + rows.size() * 256 );
+		try {
+			header( out, properties );
+			for ( int row = 0, size = rows.size(); row < size; row++ ) {
+				item( out, FeedEntry.read( rows, row, fields ), row );
+			}
+			out.write( "]}" );
+		} catch ( IOException e ) {
+			// Not thrown by a StringWriter
+			throw new UncheckedIOException( e );
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Serialize the feed to a string from entries already normalized, for a multi-format feed.
+	 *
+	 * @param properties The feed properties
+	 * @param entries    The normalized rows
+	 *
+	 * @return The JSON Feed document
+	 */
+	public static String write( IStruct properties, List<FeedEntry> entries ) {
+		StringWriter out = new StringWriter( 512 + entries.size() * 256 );
+		try {
+			header( out, properties );
+			for ( int row = 0, size = entries.size(); row < size; row++ ) {
+				item( out, entries.get( row ), row );
+			}
+			out.write( "]}" );
+		} catch ( IOException e ) {
+			// Not thrown by a StringWriter
+			throw new UncheckedIOException( e );
+		}
+		return out.toString();
+	}
+
+	/**
+	 * Write the feed properties and open the items array.
+	 */
+	private static void header( Writer out, IStruct properties ) throws IOException {
+		out.write( "{\"version\":" );
+		string( out, VERSION );
+		property( out, "title", properties.get( TITLE ) );
+		property( out, "home_page_url", properties.get( LINK ) );
+		property( out, "feed_url", properties.get( FEED_URL ) );
+		property( out, "description", properties.get( DESCRIPTION ) );
+		property( out, "language", properties.get( LANGUAGE ) );
+		property( out, "icon", properties.get( ICON ) );
+		property( out, "favicon", properties.get( FAVICON ) );
+		authors( out, properties.get( AUTHOR ) );
+		out.write( ",\"items\":[" );
+	}
+
+	/**
+	 * Write an item, preceded by a comma after the first one.
+	 */
+	private static void item( Writer out, FeedEntry entry, int row ) throws IOException {
+		if ( row > 0 ) {
+			out.write( ',' );
+		}
+
+		// id is the only required item field
+		out.write( "{\"id\":" );
+		string( out, !isEmpty( entry.id() ) ? entry.id() : !isEmpty( entry.link() ) ? entry.link() : String.valueOf( row + 1 ) );
+		property( out, "url", entry.link() );
+		property( out, "title", entry.title() );
+		if ( !isEmpty( entry.content() ) ) {
+			property( out, "content_html", entry.content() );
+			property( out, "summary", entry.description() );
+		} else {
+			property( out, "content_html", entry.description() );
+		}
+		date( out, "date_published", entry.published() );
+		date( out, "date_modified", entry.updated() );
+		authors( out, entry.author() );
+		tags( out, entry.categories() );
+		out.write( '}' );
+	}
+
+	/**
+	 * Write {@code ,"name":"value"}, skipping null and empty values.
+	 */
+	private static void property( Writer out, String name, Object value ) throws IOException {
+		if ( isEmpty( value ) ) {
+			return;
+		}
+		name( out, name );
+		string( out, StringCaster.cast( value ) );
+	}
+
+	/**
+	 * Write an RFC 3339 date, skipping null and empty values.
+	 */
+	private static void date( Writer out, String name, DateTime value ) throws IOException {
+		if ( value == null ) {
+			return;
+		}
+		name( out, name );
+		string( out, RFC_3339.format( value.getWrapped() ) );
+	}
+
+	/**
+	 * Write a single author name as the {@code authors} array.
+	 */
+	private static void authors( Writer out, Object value ) throws IOException {
+		if ( isEmpty( value ) ) {
+			return;
+		}
+		name( out, "authors" );
+		out.write( "[{\"name\":" );
+		string( out, StringCaster.cast( value ) );
+		out.write( "}]" );
+	}
+
+	/**
+	 * Write the categories as the {@code tags} array.
+	 */
+	private static void tags( Writer out, List<String> values ) throws IOException {
+		if ( values.isEmpty() ) {
+			return;
+		}
+		name( out, "tags" );
+		out.write( '[' );
+		for ( int i = 0; i < values.size(); i++ ) {
+			if ( i > 0 ) {
+				out.write( ',' );
+			}
+			string( out, values.get( i ) );
+		}
+		out.write( ']' );
+	}
+
+	private static void name( Writer out, String name ) throws IOException {
+		out.write( ",\"" );
+		out.write( name );
+		out.write( "\":" );
+	}
+
+	/**
+	 * Write a JSON string literal, escaping quotes, backslashes and control characters. U+2028 and U+2029 are escaped too, so the
+	 * output is also safe to embed in JavaScript.
+	 */
+	private static void string( Writer out, String value ) throws IOException {
+		out.write( '"' );
+		int	length	= value.length();
+		int	start	= 0;
+		for ( int i = 0; i < length; i++ ) {
+			char	c		= value.charAt( i );
+			String	escape	= null;
+			if ( c == '"' ) {
+				escape = "\\\"";
+			} else if ( c == '\\' ) {
+				escape = "\\\\";
+			} else if ( c == '\n' ) {
+				escape = "\\n";
+			} else if ( c == '\r' ) {
+				escape = "\\r";
+			} else if ( c == '\t' ) {
+				escape = "\\t";
+			} else if ( c < 0x20 || c == 0x2028 || c == 0x2029 ) {
+				escape = "\\u" + HEX[ c >> 12 & 0xF ] + HEX[ c >> 8 & 0xF ] + HEX[ c >> 4 & 0xF ] + HEX[ c & 0xF ];
+			}
+			if ( escape != null ) {
+				// Copy the unescaped run in one call
+				out.write( value, start, i - start );
+				out.write( escape );
+				start = i + 1;
+			}
+		}
+		out.write( value, start, length - start );
+		out.write( '"' );
+	}
+
+	private static boolean isEmpty( Object value ) {
+		return value == null || ( value instanceof CharSequence cs && cs.isEmpty() );
+	}
+
+}
@@ -0,0 +1,131 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.create;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass XML escaping for {@code createFeed}, in place of a BoxLang {@code xmlFormat} call per value.
+ * <p>
+ * {@link #escape(String)} follows the {@code xmlFormat} rules (XML 1.1 escaping): the five special characters become entities,
+ * the restricted control characters numeric references, and the characters XML cannot represent (NUL, U+FFFE, U+FFFF and
+ * unpaired surrogates) are dropped. The value is scanned once; a value without any of these characters is returned as is,
+ * without a copy, and otherwise the runs between them are copied in bulk.
+ * <p>
+ * {@link #cdataSections(String)} splits a value into the texts of consecutive CDATA sections, so that a {@code ]]>} in the value
+ * does not end the section.
+ */
+public final class XmlEscaper {
+
+	private XmlEscaper() {
+	}
+
+	/**
+	 * Escape a value for XML.
+	 *
+	 * @param value The value, may be null
+	 *
+	 * @return The escaped value: the same instance when nothing needs escaping, null for null
+	 */
+	public static String escape( String value ) {
+		if ( value == null ) {
+			return null;
+		}
+		int	length	= value.length();
+		int	first	= 0;
+		while ( first < length && replacement( value, first ) == null ) {
+			first++;
+		}
+		if ( first == length ) {
+			return value;
+		}
+
+		StringBuilder	out		= new StringBuilder( length + 16 );
+		int				start	= 0;
+		for ( int i = first; i < length; i++ ) {
+			String replacement = replacement( value, i );
+			if ( replacement != null ) {
+				// Copy the unescaped run in one call
+				out.append( value, start, i ).append( replacement );
+				start = i + 1;
+			}
+		}
+		return out.append( value, start, length ).toString();
+	}
+
+	/**
+	 * Split a value into the texts of consecutive CDATA sections: each {@code ]]>} is split between two sections, after its
+	 * {@code ]]}, which writes it as {@code ]]]]><![CDATA[>}.
+	 *
+	 * @param value The value
+	 *
+	 * @return The section texts, a single one when the value has no {@code ]]>}
+	 */
+	public static List<String> cdataSections( String value ) {
+		int end = value.indexOf( "]]>" );
+		if ( end < 0 ) {
+			return List.of( value );
+		}
+		List<String>	sections	= new ArrayList<>();
+		int				start		= 0;
+		while ( end >= 0 ) {
+			sections.add( value.substring( start, end + 2 ) );
+			start	= end + 2;
+			end		= value.indexOf( "]]>", start );
+		}
+		sections.add( value.substring( start ) );
+		return sections;
+	}
+
+	/**
+	 * The replacement of the character at an index: an entity, a numeric reference, the empty string to drop it, or null to keep
+	 * it.
+	 */
+	private static String replacement( String value, int index ) {
+		char c = value.charAt( index );
+		if ( c >= 0x20 && c < 0x7F && c != '&' && c != '<' && c != '>' && c != '"' && c != '\'' ) {
+			// Fast path: printable ASCII
+			return null;
+		}
+		return switch ( c ) {
+			case '&' -> "&amp;";
+			case '<' -> "&lt;";
+			case '>' -> "&gt;";
+			case '"' -> "&quot;";
+			case '\'' -> "&apos;";
+			case '\t', '\n', '\r' -> null;
+			case 0, 0xFFFE, 0xFFFF -> "";
+			default -> restricted( value, index, c );
+		};
+	}
+
+	/**
+	 * The replacement of a control character or a surrogate, or null to keep the character.
+	 */
+	private static String restricted( String value, int index, char c ) {
+		if ( c < 0x20 || ( c >= 0x7F && c <= 0x84 ) || ( c >= 0x86 && c <= 0x9F ) ) {
+			return "&#" + ( int ) c + ";";
+		}
+		if ( Character.isHighSurrogate( c ) ) {
+			return index + 1 < value.length() && Character.isLowSurrogate( value.charAt( index + 1 ) ) ? null : "";
+		}
+		if ( Character.isLowSurrogate( c ) ) {
+			return index > 0 && Character.isHighSurrogate( value.charAt( index - 1 ) ) ? null : "";
+		}
+		return null;
+	}
+
+}
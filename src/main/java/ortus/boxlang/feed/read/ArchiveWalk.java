@@ -0,0 +1,340 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.apptasticsoftware.rssreader.AbstractRssReader;
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+
+/**
+ * Walks RFC 5005 paged and archived feeds ({@code rel="next"} / {@code rel="prev-archive"} links) lazily, one page at a time.
+ * <p>
+ * A page is only fetched when the items of the previous one have been consumed, and only the current page is held in memory.
+ * The walk of a source stops at the first of:
+ * <ul>
+ * <li>{@code maxItems} items (after the filter) have been produced, across all sources</li>
+ * <li>an item with the {@code stopAtGuid} guid is reached; it and the items after it are not produced</li>
+ * <li>an item older than {@code stopAtDate} is reached; older items are skipped and no further page is fetched</li>
+ * <li>{@code maxPages} pages have been read</li>
+ * <li>the last page, a page without paging link, or a page already visited</li>
+ * </ul>
+ * Pages are expected newest first, as RFC 5005 archives are. {@link #pagesRead()} and {@link #stopReason()} report on the walk
+ * once the stream has been consumed.
+ *
+ * @param <I> The item type of the reader
+ */
+public final class ArchiveWalk<I extends Item> {
+
+	// Why the walk stopped
+	public static final String				STOP_END		= "end";
+	public static final String				STOP_MAX_ITEMS	= "maxItems";
+	public static final String				STOP_MAX_PAGES	= "maxPages";
+	public static final String				STOP_GUID		= "guid";
+	public static final String				STOP_DATE		= "date";
+
+	private final AbstractRssReader<?, I>	reader;
+	private final Deque<String>				sources;
+	private Predicate<? super I>			filter			= item -> true;
+	private long							maxItems		= 0;
+	private int								maxPages		= 0;
+	private String							stopAtGuid		= null;
+	private long							stopAtDate		= ItemFields.NO_DATE;
+	private String							userAgent		= null;
+	private Duration						timeout			= Duration.ofSeconds( 25 );
+
+	private int								pagesRead		= 0;
+	private String							stopReason		= STOP_END;
+
+	private ArchiveWalk( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		this.reader		= reader;
+		this.sources	= new ArrayDeque<>( urls );
+	}
+
+	/**
+	 * Prepare a walk.
+	 *
+	 * @param reader The reader used to parse each page
+	 * @param urls   The URLs of the first page of each feed, http(s) or file
+	 *
+	 * @return The walk, to configure and then {@link #stream()}
+	 */
+	public static <I extends Item> ArchiveWalk<I> of( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		return new ArchiveWalk<>( reader, urls );
+	}
+
+	/**
+	 * @param filter Items that do not match are skipped, and do not count towards {@code maxItems}
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setFilter( Predicate<? super I> filter ) {
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * @param maxItems The maximum number of items to produce, 0 for no limit
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setMaxItems( long maxItems ) {
+		this.maxItems = Math.max( 0, maxItems );
+		return this;
+	}
+
+	/**
+	 * @param maxPages The maximum number of pages to read per source, 0 for no limit
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setMaxPages( int maxPages ) {
+		this.maxPages = Math.max( 0, maxPages );
+		return this;
+	}
+
+	/**
+	 * @param guid The guid of the newest item already known, or null/empty
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setStopAtGuid( String guid ) {
+		this.stopAtGuid = guid == null || guid.isEmpty() ? null : guid;
+		return this;
+	}
+
+	/**
+	 * @param date The oldest publication (or updated) date to read back to, a date or date string, or null/empty
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setStopAtDate( Object date ) {
+		this.stopAtDate = date == null || "".equals( date ) ? ItemFields.NO_DATE : DateTimeCaster.cast( date ).toEpochMillis();
+		return this;
+	}
+
+	/**
+	 * @param userAgent The User-Agent of the page requests
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setUserAgent( String userAgent ) {
+		this.userAgent = userAgent == null || userAgent.isEmpty() ? null : userAgent;
+		return this;
+	}
+
+	/**
+	 * @param seconds The request timeout of the page requests, in seconds
+	 *
+	 * @return This walk
+	 */
+	public ArchiveWalk<I> setTimeout( long seconds ) {
+		if ( seconds > 0 ) {
+			this.timeout = Duration.ofSeconds( seconds );
+		}
+		return this;
+	}
+
+	/**
+	 * The items of every page, lazily.
+	 *
+	 * @return The item stream, in page order
+	 */
+	public Stream<I> stream() {
+		Pages pages = new Pages();
+		return StreamSupport.stream( Spliterators.spliteratorUnknownSize( pages, Spliterator.ORDERED | Spliterator.NONNULL ), false )
+		    .onClose( pages::closePage );
+	}
+
+	/**
+	 * @return The number of pages fetched so far
+	 */
+	public int pagesRead() {
+		return pagesRead;
+	}
+
+	/**
+	 * @return Why the walk of the last source stopped: {@code end}, {@code maxItems}, {@code maxPages}, {@code guid} or
+	 *         {@code date}
+	 */
+	public String stopReason() {
+		return stopReason;
+	}
+
+	/**
+	 * Iterates the items page by page, fetching the next page on demand.
+	 */
+	private final class Pages implements Iterator<I> {
+
+		private Stream<I>			pageStream;
+		private Iterator<I>			page;
+		private String				nextPage;
+		private int					sourcePages;
+		private boolean				dateCrossed;
+		private final Set<String>	visited		= new HashSet<>();
+		private long				produced	= 0;
+		private I					next;
+		private boolean				done;
+
+		@Override
+		public boolean hasNext() {
+			while ( next == null && !done ) {
+				if ( maxItems > 0 && produced >= maxItems ) {
+					stop( STOP_MAX_ITEMS );
+					done = true;
+				} else if ( page != null && page.hasNext() ) {
+					accept( page.next() );
+				} else if ( !advance() ) {
+					done = true;
+				}
+			}
+			return next != null;
+		}
+
+		@Override
+		public I next() {
+			if ( !hasNext() ) {
+				throw new NoSuchElementException();
+			}
+			I item = next;
+			next = null;
+			produced++;
+			return item;
+		}
+
+		/**
+		 * Apply the stop conditions and the filter to an item of the current page.
+		 */
+		private void accept( I item ) {
+			if ( stopAtGuid != null && stopAtGuid.equals( item.getGuid().orElse( null ) ) ) {
+				// Everything from here on is already known
+				endSource( STOP_GUID );
+				return;
+			}
+			if ( stopAtDate != ItemFields.NO_DATE ) {
+				long date = ItemFields.epochMillis( item );
+				if ( date != ItemFields.NO_DATE && date < stopAtDate ) {
+					// Finish this page, which may not be strictly ordered, but do not fetch the next one
+					dateCrossed = true;
+					return;
+				}
+			}
+			if ( filter.test( item ) ) {
+				next = item;
+			}
+		}
+
+		/**
+		 * Move to the next page of the current source, or to the first page of the next source.
+		 *
+		 * @return False when there is nothing left to read
+		 */
+		private boolean advance() {
+			closePage();
+			String url;
+			if ( dateCrossed ) {
+				endSource( STOP_DATE );
+				url = null;
+			} else if ( nextPage != null && maxPages > 0 && sourcePages >= maxPages ) {
+				endSource( STOP_MAX_PAGES );
+				url = null;
+			} else {
+				url = nextPage;
+			}
+
+			if ( url == null || !visited.add( url ) ) {
+				if ( url != null ) {
+					// A paging loop
+					stop( STOP_END );
+				}
+				url = sources.poll();
+				if ( url == null ) {
+					return false;
+				}
+				visited.clear();
+				visited.add( url );
+				sourcePages	= 0;
+				dateCrossed	= false;
+				stopReason	= STOP_END;
+			}
+
+			byte[] document = fetch( url );
+			pagesRead++;
+			sourcePages++;
+			try {
+				nextPage = FeedLinks.scan( new ByteArrayInputStream( document ), url ).nextPage();
+			} catch ( XMLStreamException e ) {
+				throw new BoxIOException( "Unable to read the archive page [" + url + "]: " + e.getMessage(), e );
+			}
+			pageStream	= reader.read( new ByteArrayInputStream( document ) );
+			page		= pageStream.iterator();
+			return true;
+		}
+
+		/**
+		 * Stop the current source: drop the rest of its page and its next pages.
+		 */
+		private void endSource( String reason ) {
+			closePage();
+			nextPage	= null;
+			dateCrossed	= false;
+			stop( reason );
+		}
+
+		private void stop( String reason ) {
+			stopReason = reason;
+		}
+
+		void closePage() {
+			if ( pageStream != null ) {
+				pageStream.close();
+			}
+			pageStream	= null;
+			page		= null;
+		}
+	}
+
+	/**
+	 * Fetch a page: http(s) URLs with the configured User-Agent and timeout, file URIs and plain paths from disk.
+	 */
+	private byte[] fetch( String url ) {
+		try ( InputStream in = FeedFetcher.open( url, userAgent, timeout.toSeconds() ) ) {
+			return in.readAllBytes();
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Unable to read the archive page [" + url + "]: " + e.getMessage(), e );
+		}
+	}
+
+}
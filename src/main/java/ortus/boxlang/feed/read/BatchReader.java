@@ -0,0 +1,229 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.apptasticsoftware.rssreader.AbstractRssReader;
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+
+/**
+ * Reads a large list of feeds with bounded concurrency, handing each feed over as soon as it completes.
+ * <p>
+ * At most {@code concurrency} feeds are being read at any time: a new read is only started when a completed feed has been taken
+ * with {@link #next()}. The caller iterates the completions on its own thread, in completion order, so it can write each result
+ * out and release it before the next one arrives. Peak memory therefore follows the concurrency limit, not the number of feeds.
+ * <p>
+ * Close the batch to stop it early; pending reads are cancelled.
+ *
+ * @param <I> The item type of the reader
+ */
+public final class BatchReader<I extends Item> implements Iterator<BatchReader.Completion<I>>, AutoCloseable {
+
+	/**
+	 * The default number of feeds read at the same time
+	 */
+	public static final int								DEFAULT_CONCURRENCY	= 8;
+
+	private static final AtomicInteger					THREAD_COUNTER	= new AtomicInteger();
+
+	private final AbstractRssReader<?, I>				reader;
+	private final Deque<String>							pending;
+	private Predicate<? super I>						filter			= null;
+	private String										sortBy			= "none";
+	private long										maxItems		= 0;
+	private int											concurrency		= DEFAULT_CONCURRENCY;
+
+	private ExecutorService								executor;
+	private ExecutorCompletionService<Completion<I>>	completions;
+	private int											inFlight		= 0;
+
+	/**
+	 * A completed feed.
+	 *
+	 * @param url           The feed URL
+	 * @param items         The items, filtered, sorted and limited; empty on error
+	 * @param error         The error, or null
+	 * @param elapsedMillis The time spent reading the feed
+	 */
+	public record Completion<I extends Item>( String url, List<I> items, Throwable error, long elapsedMillis ) {
+
+		/**
+		 * @return Whether the feed was read
+		 */
+		public boolean ok() {
+			return error == null;
+		}
+
+		/**
+		 * @return The error message, or an empty string
+		 */
+		public String errorMessage() {
+			if ( error == null ) {
+				return "";
+			}
+			return error.getMessage() == null ? error.toString() : error.getMessage();
+		}
+	}
+
+	private BatchReader( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		this.reader		= reader;
+		this.pending	= new ArrayDeque<>( urls );
+	}
+
+	/**
+	 * Prepare a batch.
+	 *
+	 * @param reader The reader, already configured (timeouts, User-Agent)
+	 * @param urls   The feed URLs
+	 *
+	 * @return The batch, to configure and then iterate
+	 */
+	public static <I extends Item> BatchReader<I> of( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		return new BatchReader<>( reader, urls );
+	}
+
+	/**
+	 * @param concurrency The maximum number of feeds read at the same time
+	 *
+	 * @return This batch
+	 */
+	public BatchReader<I> setConcurrency( int concurrency ) {
+		this.concurrency = concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY;
+		return this;
+	}
+
+	/**
+	 * Filter, sort and limit the items of each feed on the reading threads.
+	 *
+	 * @param filter   The item filter (a Java predicate), or null
+	 * @param sortBy   The sort specification (see {@link ItemSorter})
+	 * @param maxItems The maximum number of items per feed, 0 for no limit
+	 *
+	 * @return This batch
+	 */
+	public BatchReader<I> setPipeline( Predicate<? super I> filter, String sortBy, long maxItems ) {
+		this.filter		= filter;
+		this.sortBy		= sortBy;
+		this.maxItems	= maxItems;
+		return this;
+	}
+
+	/**
+	 * @return The number of feeds not completed yet
+	 */
+	public int remaining() {
+		return pending.size() + inFlight;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if ( executor == null ) {
+			start();
+		}
+		return inFlight > 0;
+	}
+
+	/**
+	 * Wait for the next completed feed and start reading the next pending one.
+	 *
+	 * @return The completed feed
+	 */
+	@Override
+	public Completion<I> next() {
+		if ( !hasNext() ) {
+			throw new NoSuchElementException();
+		}
+		try {
+			Completion<I> completion = completions.take().get();
+			inFlight--;
+			submitNext();
+			return completion;
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			close();
+			throw new BoxIOException( "Interrupted while reading the feed batch", e );
+		} catch ( ExecutionException e ) {
+			// read() reports failures in the completion; this is unexpected
+			close();
+			throw new BoxIOException( "Unable to read the feed batch: " + e.getCause().getMessage(), e.getCause() );
+		}
+	}
+
+	/**
+	 * Stop the batch: pending feeds are dropped and running reads interrupted.
+	 */
+	@Override
+	public void close() {
+		pending.clear();
+		inFlight = 0;
+		if ( executor != null ) {
+			executor.shutdownNow();
+		}
+	}
+
+	private void start() {
+		int threads = Math.max( 1, Math.min( concurrency, pending.size() ) );
+		executor = Executors.newFixedThreadPool( threads, runnable -> {
+			Thread thread = new Thread( runnable, "bxrss-batch-" + THREAD_COUNTER.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		completions = new ExecutorCompletionService<>( executor );
+		for ( int i = 0; i < threads; i++ ) {
+			submitNext();
+		}
+	}
+
+	private void submitNext() {
+		String url = pending.poll();
+		if ( url == null ) {
+			if ( inFlight == 0 ) {
+				executor.shutdown();
+			}
+			return;
+		}
+		inFlight++;
+		completions.submit( () -> read( url ) );
+	}
+
+	/**
+	 * Read one feed; failures are captured in the completion.
+	 */
+	private Completion<I> read( String url ) {
+		long start = System.nanoTime();
+		try ( Stream<I> items = reader.read( url ) ) {
+			Stream<I> pipeline = filter == null ? items : items.filter( filter );
+			return new Completion<>( url, ItemSorter.apply( pipeline, sortBy, maxItems ).toList(), null, ( System.nanoTime() - start ) / 1_000_000 );
+		} catch ( Exception e ) {
+			return new Completion<>( url, List.of(), e, ( System.nanoTime() - start ) / 1_000_000 );
+		}
+	}
+
+}
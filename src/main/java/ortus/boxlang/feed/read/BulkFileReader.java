@@ -0,0 +1,373 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import com.apptasticsoftware.rssreader.AbstractRssReader;
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+
+/**
+ * Parses many local feed files in parallel: a directory, a single file or a glob such as {@code /archive/**.xml}.
+ * <p>
+ * Files are read through NIO, memory-mapped above {@link #MMAP_THRESHOLD} bytes, and parsed on a fixed pool of threads (one
+ * per core by default). The raw bytes of the files read ahead of the parsers are bounded ({@code readAheadBytes}), so a
+ * directory of large files is not loaded all at once. This bound does not cover the parsed items: the items of every file are
+ * kept until {@link #read()} returns, so the heap still grows with the number of items imported. A file that cannot be read or
+ * parsed is reported in its result instead of failing the whole import.
+ *
+ * @param <I> The item type of the reader
+ */
+public final class BulkFileReader<I extends Item> {
+
+	/**
+	 * Files from this size on are memory-mapped instead of copied to the heap
+	 */
+	public static final long				MMAP_THRESHOLD				= 1L << 20;
+
+	/**
+	 * The default read-ahead, in raw file bytes
+	 */
+	public static final long				DEFAULT_READ_AHEAD_BYTES	= 64L << 20;
+
+	/**
+	 * The default file pattern when a directory is given
+	 */
+	public static final String				DEFAULT_GLOB				= "*.xml";
+
+	private static final AtomicInteger		THREAD_COUNTER				= new AtomicInteger();
+
+	private final AbstractRssReader<?, I>	reader;
+	private final List<Path>				files;
+	private Predicate<? super I>			filter						= item -> true;
+	private int								parallelism					= Runtime.getRuntime().availableProcessors();
+	private long							readAheadBytes				= DEFAULT_READ_AHEAD_BYTES;
+
+	/**
+	 * The outcome of one file.
+	 *
+	 * @param path  The file
+	 * @param bytes The file size
+	 * @param items The parsed items that match the filter, empty on error
+	 * @param error The error message, or null
+	 */
+	public record FileResult<I extends Item>( Path path, long bytes, List<I> items, String error ) {
+
+		/**
+		 * @return Whether the file was read and parsed
+		 */
+		public boolean ok() {
+			return error == null;
+		}
+	}
+
+	/**
+	 * Throughput of a bulk read.
+	 *
+	 * @param files        The number of files
+	 * @param failed       The number of files that could not be read or parsed
+	 * @param bytes        The total size of the files
+	 * @param items        The number of items produced
+	 * @param elapsedNanos The wall-clock duration
+	 */
+	public record Stats( int files, int failed, long bytes, long items, long elapsedNanos ) {
+
+		/**
+		 * @return The elapsed time in milliseconds
+		 */
+		public long elapsedMillis() {
+			return elapsedNanos / 1_000_000;
+		}
+
+		/**
+		 * @return Files per second
+		 */
+		public double filesPerSecond() {
+			return elapsedNanos == 0 ? 0 : files * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * @return Bytes per second
+		 */
+		public double bytesPerSecond() {
+			return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+		}
+	}
+
+	/**
+	 * The outcome of a bulk read: one result per file, in path order.
+	 *
+	 * @param files The file results
+	 * @param stats The throughput
+	 */
+	public record Result<I extends Item>( List<FileResult<I>> files, Stats stats ) {
+
+		/**
+		 * @return The items of every file, merged in path order
+		 */
+		public Stream<I> items() {
+			return files.stream().flatMap( file -> file.items().stream() );
+		}
+	}
+
+	private BulkFileReader( AbstractRssReader<?, I> reader, List<Path> files ) {
+		this.reader	= reader;
+		this.files	= files;
+	}
+
+	/**
+	 * Prepare a bulk read.
+	 *
+	 * @param reader The reader used to parse each file
+	 * @param source A file, a directory (its {@code *.xml} files) or a glob ({@code *}, {@code **}, {@code ?}, {@code [..]},
+	 *               {@code {..}}); {@code file:} URIs are accepted
+	 *
+	 * @return The bulk reader, to configure and then {@link #read()}
+	 */
+	public static <I extends Item> BulkFileReader<I> of( AbstractRssReader<?, I> reader, String source ) {
+		return new BulkFileReader<>( reader, resolve( source ) );
+	}
+
+	/**
+	 * @param filter Items that do not match are dropped while parsing. Evaluated on the worker threads
+	 *
+	 * @return This reader
+	 */
+	public BulkFileReader<I> setFilter( Predicate<? super I> filter ) {
+		this.filter = filter;
+		return this;
+	}
+
+	/**
+	 * @param parallelism The number of parsing threads, 0 for one per core
+	 *
+	 * @return This reader
+	 */
+	public BulkFileReader<I> setParallelism( int parallelism ) {
+		this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		return this;
+	}
+
+	/**
+	 * @param readAheadBytes The maximum number of raw file bytes read but not yet parsed, 0 for the default. The parsed items are
+	 *                       not counted
+	 *
+	 * @return This reader
+	 */
+	public BulkFileReader<I> setReadAheadBytes( long readAheadBytes ) {
+		this.readAheadBytes = readAheadBytes > 0 ? readAheadBytes : DEFAULT_READ_AHEAD_BYTES;
+		return this;
+	}
+
+	/**
+	 * @return The matched files, in path order
+	 */
+	public List<Path> files() {
+		return files;
+	}
+
+	/**
+	 * Read and parse every file.
+	 *
+	 * @return The results, in path order, and the throughput
+	 */
+	public Result<I> read() {
+		long		start		= System.nanoTime();
+		// Permits are KiB of the read-ahead
+		int			budget		= ( int ) Math.max( 1, Math.min( Integer.MAX_VALUE, readAheadBytes >> 10 ) );
+		Semaphore	readAhead	= new Semaphore( budget );
+		int			threads		= Math.max( 1, Math.min( parallelism, files.size() ) );
+
+		ExecutorService executor = Executors.newFixedThreadPool( threads, runnable -> {
+			Thread thread = new Thread( runnable, "bxrss-bulk-" + THREAD_COUNTER.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		} );
+
+		List<FileResult<I>> results = new ArrayList<>( files.size() );
+		try {
+			List<Future<FileResult<I>>> futures = new ArrayList<>( files.size() );
+			for ( Path file : files ) {
+				futures.add( executor.submit( () -> parse( file, readAhead, budget ) ) );
+			}
+			for ( Future<FileResult<I>> future : futures ) {
+				results.add( future.get() );
+			}
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new BoxIOException( "Interrupted while reading the feed files", e );
+		} catch ( ExecutionException e ) {
+			throw new BoxIOException( "Unable to read the feed files: " + e.getCause().getMessage(), e.getCause() );
+		} finally {
+			executor.shutdownNow();
+		}
+
+		int		failed	= 0;
+		long	bytes	= 0;
+		long	items	= 0;
+		for ( FileResult<I> result : results ) {
+			failed	+= result.ok() ? 0 : 1;
+			bytes	+= result.bytes();
+			items	+= result.items().size();
+		}
+		return new Result<>( results, new Stats( results.size(), failed, bytes, items, System.nanoTime() - start ) );
+	}
+
+	/**
+	 * Read and parse one file within the read-ahead.
+	 */
+	private FileResult<I> parse( Path file, Semaphore readAhead, int budget ) throws InterruptedException {
+		long size;
+		try {
+			size = Files.size( file );
+		} catch ( IOException e ) {
+			return new FileResult<>( file, 0, List.of(), e.toString() );
+		}
+
+		// A file larger than the whole budget takes all of it
+		int permits = ( int ) Math.max( 1, Math.min( budget, size >> 10 ) );
+		readAhead.acquire( permits );
+		try ( FileChannel channel = FileChannel.open( file, StandardOpenOption.READ );
+		    Stream<I> items = reader.read( open( channel, size ) ) ) {
+			return new FileResult<>( file, size, items.filter( filter ).toList(), null );
+		} catch ( IOException | RuntimeException e ) {
+			return new FileResult<>( file, size, List.of(), e.getMessage() == null ? e.toString() : e.getMessage() );
+		} finally {
+			readAhead.release( permits );
+		}
+	}
+
+	/**
+	 * Open the file content: memory-mapped for large files, a single heap read otherwise.
+	 */
+	private static InputStream open( FileChannel channel, long size ) throws IOException {
+		if ( size >= MMAP_THRESHOLD ) {
+			return new BufferInputStream( channel.map( FileChannel.MapMode.READ_ONLY, 0, size ) );
+		}
+		ByteBuffer buffer = ByteBuffer.allocate( ( int ) size );
+		while ( buffer.hasRemaining() && channel.read( buffer ) >= 0 ) {
+			// Read fully
+		}
+		return new ByteArrayInputStream( buffer.array(), 0, buffer.position() );
+	}
+
+	/**
+	 * Resolve the source to the list of files, in path order.
+	 */
+	static List<Path> resolve( String source ) {
+		String location = source.startsWith( "file:" ) ? Path.of( URI.create( source ) ).toString() : source;
+
+		int		globStart	= indexOfGlob( location );
+		Path	base;
+		String	pattern;
+		if ( globStart < 0 ) {
+			Path path = Path.of( location );
+			if ( Files.isRegularFile( path ) ) {
+				return List.of( path );
+			}
+			base	= path;
+			pattern	= DEFAULT_GLOB;
+		} else {
+			int separator = Math.max( location.lastIndexOf( '/', globStart ), location.lastIndexOf( '\\', globStart ) );
+			base	= Path.of( separator < 0 ? "." : location.substring( 0, separator + 1 ) );
+			pattern	= location.substring( separator + 1 );
+		}
+
+		if ( !Files.isDirectory( base ) ) {
+			throw new BoxIOException( "The feed file location [" + source + "] does not exist or is not a directory", null );
+		}
+
+		PathMatcher	matcher	= FileSystems.getDefault().getPathMatcher( "glob:" + pattern.replace( '\\', '/' ) );
+		// Only descend when the pattern can match below the base directory
+		int			depth	= pattern.contains( "**" ) ? Integer.MAX_VALUE : ( int ) pattern.chars().filter( c -> c == '/' ).count() + 1;
+		try ( Stream<Path> paths = Files.walk( base, depth ) ) {
+			return paths
+			    .filter( Files::isRegularFile )
+			    .filter( path -> matcher.matches( base.relativize( path ) ) )
+			    .sorted()
+			    .toList();
+		} catch ( IOException e ) {
+			throw new BoxIOException( "Unable to list the feed files in [" + base + "]: " + e.getMessage(), e );
+		}
+	}
+
+	private static int indexOfGlob( String location ) {
+		for ( int i = 0; i < location.length(); i++ ) {
+			char c = location.charAt( i );
+			if ( c == '*' || c == '?' || c == '[' || c == '{' ) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * An input stream over a (memory-mapped) byte buffer.
+	 */
+	private static final class BufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		BufferInputStream( ByteBuffer buffer ) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read( byte[] target, int offset, int length ) {
+			if ( length == 0 ) {
+				return 0;
+			}
+			if ( !buffer.hasRemaining() ) {
+				return -1;
+			}
+			int count = Math.min( length, buffer.remaining() );
+			buffer.get( target, offset, count );
+			return count;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+
+}
@@ -0,0 +1,186 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * The circuit breaker of one feed source (a URL or a host).
+ * <p>
+ * {@code closed}: requests go through; {@code failureThreshold} consecutive failures open the circuit. {@code open}: requests
+ * are refused, so callers fail fast instead of waiting for the timeout of a source that is down.
+ * Once the cool-down has passed the circuit is {@code half_open}: a single probe request goes through, the others are still
+ * refused. A successful probe closes the circuit, a failed one opens it for another cool-down.
+ * <p>
+ * Time comes from the given {@link Clock}, so the transitions can be tested without waiting.
+ */
+public final class CircuitBreaker {
+
+	/**
+	 * The circuit states
+	 */
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN;
+
+		/**
+		 * @return The state name as reported: closed, open or half_open
+		 */
+		public String label() {
+			return name().toLowerCase();
+		}
+	}
+
+	private final String	key;
+	private final int		failureThreshold;
+	private final Duration	cooldown;
+	private final Clock		clock;
+
+	private State			state		= State.CLOSED;
+	private int				failures	= 0;
+	private boolean			probing		= false;
+	private Instant			openedAt	= null;
+	private Instant			lastFailure	= null;
+	private Instant			lastSuccess	= null;
+	private String			lastError	= "";
+
+	/**
+	 * @param key              The source the circuit protects
+	 * @param failureThreshold The number of consecutive failures that opens the circuit
+	 * @param cooldown         How long the circuit stays open before a probe is let through
+	 * @param clock            The time source
+	 */
+	public CircuitBreaker( String key, int failureThreshold, Duration cooldown, Clock clock ) {
+		this.key				= key;
+		this.failureThreshold	= Math.max( 1, failureThreshold );
+		this.cooldown			= cooldown;
+		this.clock				= clock;
+	}
+
+	/**
+	 * Ask to send a request. An open circuit whose cool-down has passed lets one probe through.
+	 *
+	 * @return Whether the request may be sent; report its outcome with {@link #onSuccess()} or {@link #onFailure(Throwable)}
+	 */
+	public synchronized boolean tryAcquire() {
+		switch ( state ) {
+			case CLOSED :
+				return true;
+			case OPEN :
+				if ( clock.instant().isBefore( openedAt.plus( cooldown ) ) ) {
+					return false;
+				}
+				state	= State.HALF_OPEN;
+				probing	= true;
+				return true;
+			default :
+				// Half open: only the probe goes through
+				if ( probing ) {
+					return false;
+				}
+				probing = true;
+				return true;
+		}
+	}
+
+	/**
+	 * Report a successful request: the circuit closes.
+	 */
+	public synchronized void onSuccess() {
+		state		= State.CLOSED;
+		failures	= 0;
+		probing		= false;
+		openedAt	= null;
+		lastSuccess	= clock.instant();
+	}
+
+	/**
+	 * Report a failed request: the circuit opens after {@code failureThreshold} consecutive failures, or at once after a failed
+	 * probe.
+	 *
+	 * @param error The failure
+	 */
+	public synchronized void onFailure( Throwable error ) {
+		failures++;
+		lastFailure	= clock.instant();
+		lastError	= error == null ? "" : String.valueOf( error.getMessage() );
+		if ( state == State.HALF_OPEN || failures >= failureThreshold ) {
+			state		= State.OPEN;
+			openedAt	= lastFailure;
+		}
+		probing = false;
+	}
+
+	/**
+	 * Give up a request without an outcome, such as a cancelled read: neither a success nor a failure is counted, and a half
+	 * open circuit lets the next probe through.
+	 */
+	public synchronized void release() {
+		probing = false;
+	}
+
+	/**
+	 * @return The source the circuit protects
+	 */
+	public String key() {
+		return key;
+	}
+
+	/**
+	 * @return The current state
+	 */
+	public synchronized State state() {
+		return state;
+	}
+
+	/**
+	 * @return The number of consecutive failures
+	 */
+	public synchronized int failures() {
+		return failures;
+	}
+
+	/**
+	 * @return When an open circuit lets a probe through, or null when it is not open
+	 */
+	public synchronized Instant retryAt() {
+		return state == State.OPEN ? openedAt.plus( cooldown ) : null;
+	}
+
+	/**
+	 * @return When the last request failed, or null
+	 */
+	public synchronized Instant lastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * @return When the last request succeeded, or null
+	 */
+	public synchronized Instant lastSuccess() {
+		return lastSuccess;
+	}
+
+	/**
+	 * @return The message of the last failure, or an empty string
+	 */
+	public synchronized String lastError() {
+		return lastError;
+	}
+
+}
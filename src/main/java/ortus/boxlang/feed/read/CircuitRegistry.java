@@ -0,0 +1,469 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import com.apptasticsoftware.rssreader.AbstractRssReader;
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * The circuit breakers of the feed sources, and the last good items of each feed (negative caching).
+ * <p>
+ * {@link #read(AbstractRssReader, Collection)} reads feeds through their circuits: a source whose circuit is open is not
+ * requested at all, and a feed that fails or is refused is served from its last good items when there are some, or skipped
+ * otherwise, as the reader does with a failed feed. The status of each feed is returned with the items.
+ * <p>
+ * Circuits are kept per feed URL ({@code url} scope) or per host ({@code host} scope, so one host that is down opens the
+ * circuit of all its feeds). The settings apply to the circuits created afterwards; {@link #reset()} drops the existing ones.
+ * The last good items are kept for at most {@code maxStaleItems} items in all (see {@link #setMaxStaleItems(int)}), the least
+ * recently used feeds being evicted first.
+ */
+public final class CircuitRegistry {
+
+	// Circuit scopes
+	public static final String					SCOPE_URL			= "url";
+	public static final String					SCOPE_HOST			= "host";
+
+	// Feed statuses of a read
+	public static final String					OK					= "ok";
+	public static final String					FAILED				= "failed";
+	public static final String					OPEN				= "open";
+	public static final String					STALE				= "stale";
+
+	/**
+	 * The number of feeds read at the same time by {@link #read(AbstractRssReader, Collection)}
+	 */
+	public static final int						CONCURRENCY			= BatchReader.DEFAULT_CONCURRENCY;
+
+	private static final AtomicInteger			THREAD_COUNTER		= new AtomicInteger();
+
+	private static final CircuitRegistry		SHARED				= new CircuitRegistry( Clock.systemUTC() );
+
+	private final Map<String, CircuitBreaker>	circuits			= new ConcurrentHashMap<>();
+	// Access ordered, for the LRU eviction; guarded by itself
+	private final Map<String, List<?>>			lastGood			= new LinkedHashMap<>( 16, 0.75f, true );
+	private int									staleItems			= 0;
+	private volatile int						maxStaleItems		= 10_000;
+	private volatile Clock						clock;
+	private volatile boolean					enabled				= true;
+	private volatile int						failureThreshold	= 5;
+	private volatile Duration					cooldown			= Duration.ofSeconds( 60 );
+	private volatile String						scope				= SCOPE_URL;
+	private volatile boolean					serveStale			= true;
+
+	/**
+	 * The items of a read through the circuits, and the status of each feed: {@code ok}, {@code failed} (nothing to serve),
+	 * {@code open} (refused, nothing to serve) or {@code stale} (failed or refused, last good items served).
+	 *
+	 * @param items  The items of all feeds, in URL order
+	 * @param status The status of each feed URL
+	 */
+	public record CircuitRead<I extends Item>( List<I> items, Map<String, String> status ) {
+
+		/**
+		 * @return Whether every feed was read
+		 */
+		public boolean allOk() {
+			return status.values().stream().allMatch( OK::equals );
+		}
+
+		/**
+		 * @return The status of each feed URL, as a struct
+		 */
+		public IStruct statusStruct() {
+			IStruct result = new Struct( Struct.TYPES.LINKED );
+			status.forEach( result::put );
+			return result;
+		}
+	}
+
+	/**
+	 * @param clock The time source of the circuits
+	 */
+	public CircuitRegistry( Clock clock ) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The registry of the module, configured from its settings
+	 */
+	public static CircuitRegistry shared() {
+		return SHARED;
+	}
+
+	/**
+	 * @param enabled Whether reads go through the circuits
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setEnabled( boolean enabled ) {
+		this.enabled = enabled;
+		return this;
+	}
+
+	/**
+	 * @param failureThreshold The number of consecutive failures that opens a circuit
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setFailureThreshold( int failureThreshold ) {
+		if ( failureThreshold < 1 ) {
+			throw new BoxValidationException( "Invalid failureThreshold [" + failureThreshold + "]. Must be 1 or more." );
+		}
+		this.failureThreshold = failureThreshold;
+		return this;
+	}
+
+	/**
+	 * @param seconds How long an open circuit refuses requests before letting a probe through
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setCooldown( long seconds ) {
+		if ( seconds < 0 ) {
+			throw new BoxValidationException( "Invalid cooldownSeconds [" + seconds + "]. Must be 0 or more." );
+		}
+		this.cooldown = Duration.ofSeconds( seconds );
+		return this;
+	}
+
+	/**
+	 * @param scope {@code url} or {@code host}
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setScope( String scope ) {
+		String normalized = scope == null ? "" : scope.trim().toLowerCase( Locale.ROOT );
+		if ( !SCOPE_URL.equals( normalized ) && !SCOPE_HOST.equals( normalized ) ) {
+			throw new BoxValidationException( "Invalid circuit scope [" + scope + "]. Expected 'url' or 'host'." );
+		}
+		this.scope = normalized;
+		return this;
+	}
+
+	/**
+	 * @param serveStale Whether failed and refused feeds are served from their last good items
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setServeStale( boolean serveStale ) {
+		this.serveStale = serveStale;
+		if ( !serveStale ) {
+			clearLastGood();
+		}
+		return this;
+	}
+
+	/**
+	 * @param maxStaleItems The number of last good items kept for all feeds; the least recently used feeds are evicted beyond it
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setMaxStaleItems( int maxStaleItems ) {
+		if ( maxStaleItems < 0 ) {
+			throw new BoxValidationException( "Invalid maxStaleItems [" + maxStaleItems + "]. Must be 0 or more." );
+		}
+		this.maxStaleItems = maxStaleItems;
+		synchronized ( lastGood ) {
+			evictStale();
+		}
+		return this;
+	}
+
+	/**
+	 * @param clock The time source of the circuits created afterwards
+	 *
+	 * @return This registry
+	 */
+	public CircuitRegistry setClock( Clock clock ) {
+		this.clock = clock;
+		return this;
+	}
+
+	/**
+	 * @return Whether reads go through the circuits
+	 */
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Get the circuit of a feed, created closed on first use.
+	 *
+	 * @param url The feed URL
+	 *
+	 * @return The circuit of the URL, or of its host in {@code host} scope
+	 */
+	public CircuitBreaker circuit( String url ) {
+		return circuits.computeIfAbsent( keyOf( url ), key -> new CircuitBreaker( key, failureThreshold, cooldown, clock ) );
+	}
+
+	/**
+	 * Read feeds through their circuits. Several feeds are read in parallel, at most {@link #CONCURRENCY} at a time, on threads
+	 * of their own rather than the common pool, since the reads block on the network.
+	 *
+	 * @param reader The reader used to parse each feed
+	 * @param urls   The feed URLs
+	 *
+	 * @return The items and the status of each feed
+	 */
+	public <I extends Item> CircuitRead<I> read( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		List<String>						sources			= List.copyOf( urls );
+		// Captured here: the feeds may be read on other threads
+		ReadCancellation					cancellation	= ReadCancellation.current();
+		List<Map.Entry<String, List<I>>>	outcomes		= sources.size() > 1
+		    ? readAll( reader, sources, cancellation )
+		    : sources.stream().map( url -> readOne( reader, url, cancellation ) ).toList();
+
+		List<I>								items		= new ArrayList<>();
+		Map<String, String>					status		= new LinkedHashMap<>();
+		for ( int i = 0; i < sources.size(); i++ ) {
+			Map.Entry<String, List<I>> outcome = outcomes.get( i );
+			status.put( sources.get( i ), outcome.getKey() );
+			items.addAll( outcome.getValue() );
+		}
+		return new CircuitRead<>( items, Collections.unmodifiableMap( status ) );
+	}
+
+	/**
+	 * Read several feeds on a pool of their own, keeping the outcomes in the order of the feeds. When the caller is cancelled or
+	 * interrupted, the reads still running are cancelled too, so they release their circuits.
+	 */
+	private <I extends Item> List<Map.Entry<String, List<I>>> readAll( AbstractRssReader<?, I> reader, List<String> sources,
+	    ReadCancellation current ) {
+		ReadCancellation							cancellation	= current != null ? current : ReadCancellation.create();
+		List<Callable<Map.Entry<String, List<I>>>>	reads			= new ArrayList<>();
+		for ( String url : sources ) {
+			reads.add( () -> readOne( reader, url, cancellation ) );
+		}
+		ExecutorService executor = Executors.newFixedThreadPool( Math.min( CONCURRENCY, sources.size() ), runnable -> {
+			Thread thread = new Thread( runnable, "bxrss-circuit-" + THREAD_COUNTER.incrementAndGet() );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		try {
+			List<Map.Entry<String, List<I>>> outcomes = new ArrayList<>();
+			for ( Future<Map.Entry<String, List<I>>> read : executor.invokeAll( reads ) ) {
+				outcomes.add( read.get() );
+			}
+			return outcomes;
+		} catch ( InterruptedException e ) {
+			cancellation.cancel();
+			Thread.currentThread().interrupt();
+			throw new CancellationException( "The feed read was cancelled" );
+		} catch ( ExecutionException e ) {
+			// readOne() reports failures in the outcome; only a cancellation gets here
+			if ( e.getCause() instanceof RuntimeException cause ) {
+				throw cause;
+			}
+			throw new BoxIOException( "Unable to read the feeds: " + e.getCause().getMessage(), e.getCause() );
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Read one feed through its circuit. A cancelled read is neither a success nor a failure of the feed: it only releases the
+	 * circuit.
+	 *
+	 * @return The feed status and its items
+	 */
+	private <I extends Item> Map.Entry<String, List<I>> readOne( AbstractRssReader<?, I> reader, String url, ReadCancellation cancellation ) {
+		CircuitBreaker	circuit		= circuit( url );
+		String			staleKey	= staleKey( reader, url );
+		if ( cancellation != null ) {
+			cancellation.check();
+		}
+		if ( circuit.tryAcquire() ) {
+			try ( Stream<I> feed = reader.read( url ) ) {
+				List<I> items = ( cancellation == null ? feed : ReadCancellation.guard( feed, cancellation ) ).toList();
+				circuit.onSuccess();
+				keepLastGood( staleKey, items );
+				return Map.entry( OK, items );
+			} catch ( Exception e ) {
+				if ( e instanceof CancellationException || cancellation != null && cancellation.isCancelled() ) {
+					circuit.release();
+					throw new CancellationException( "The feed read was cancelled" );
+				}
+				circuit.onFailure( e );
+				return fallback( staleKey, FAILED );
+			}
+		}
+		return fallback( staleKey, OPEN );
+	}
+
+	/**
+	 * The last good items of a feed that cannot be read, if any.
+	 */
+	@SuppressWarnings( "unchecked" )
+	private <I extends Item> Map.Entry<String, List<I>> fallback( String staleKey, String status ) {
+		List<I> stale = ( List<I> ) staleItems( staleKey );
+		return stale != null ? Map.entry( STALE, stale ) : Map.entry( status, List.of() );
+	}
+
+	/**
+	 * Keep the items of a feed read in full, evicting the least recently used feeds beyond {@code maxStaleItems} items.
+	 */
+	private void keepLastGood( String staleKey, List<?> items ) {
+		synchronized ( lastGood ) {
+			List<?> previous = lastGood.remove( staleKey );
+			if ( previous != null ) {
+				staleItems -= previous.size();
+			}
+			if ( serveStale && items.size() <= maxStaleItems ) {
+				lastGood.put( staleKey, items );
+				staleItems += items.size();
+				evictStale();
+			}
+		}
+	}
+
+	/**
+	 * Drop the least recently used feeds until the items kept fit in {@code maxStaleItems}. Called with the lock held.
+	 */
+	private void evictStale() {
+		Iterator<List<?>> eldest = lastGood.values().iterator();
+		while ( staleItems > maxStaleItems && eldest.hasNext() ) {
+			staleItems -= eldest.next().size();
+			eldest.remove();
+		}
+	}
+
+	private List<?> staleItems( String staleKey ) {
+		if ( !serveStale ) {
+			return null;
+		}
+		synchronized ( lastGood ) {
+			return lastGood.get( staleKey );
+		}
+	}
+
+	private void clearLastGood() {
+		synchronized ( lastGood ) {
+			lastGood.clear();
+			staleItems = 0;
+		}
+	}
+
+	/**
+	 * The last good items of a feed, for the readers that go through the circuits without {@link #read}.
+	 *
+	 * @return The items of the last successful read of the feed with this reader, or null
+	 */
+	@SuppressWarnings( "unchecked" )
+	<I extends Item> List<I> lastGood( AbstractRssReader<?, I> reader, String url ) {
+		return ( List<I> ) staleItems( staleKey( reader, url ) );
+	}
+
+	private static String staleKey( AbstractRssReader<?, ?> reader, String url ) {
+		return reader.getClass().getName() + " " + url;
+	}
+
+	/**
+	 * @return The state of every circuit: key, state, failures, lastError, lastFailure, lastSuccess and retryAt (the
+	 *         instants as ISO-8601 strings, empty when unknown)
+	 */
+	public Array snapshot() {
+		Array result = new Array();
+		circuits.values().stream()
+		    .sorted( ( a, b ) -> a.key().compareTo( b.key() ) )
+		    .forEach( circuit -> result.add( Struct.linkedOf(
+		        "key", circuit.key(),
+		        "state", circuit.state().label(),
+		        "failures", circuit.failures(),
+		        "lastError", circuit.lastError(),
+		        "lastFailure", format( circuit.lastFailure() ),
+		        "lastSuccess", format( circuit.lastSuccess() ),
+		        "retryAt", format( circuit.retryAt() )
+		    ) ) );
+		return result;
+	}
+
+	/**
+	 * Drop every circuit and last good result.
+	 */
+	public void reset() {
+		circuits.clear();
+		clearLastGood();
+	}
+
+	/**
+	 * Drop the circuit of a feed and its last good results.
+	 *
+	 * @param url The feed URL
+	 */
+	public void reset( String url ) {
+		circuits.remove( keyOf( url ) );
+		synchronized ( lastGood ) {
+			Iterator<Map.Entry<String, List<?>>> entries = lastGood.entrySet().iterator();
+			while ( entries.hasNext() ) {
+				Map.Entry<String, List<?>> entry = entries.next();
+				if ( entry.getKey().endsWith( " " + url ) ) {
+					staleItems -= entry.getValue().size();
+					entries.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The circuit key of a URL: the URL itself, or its host (and port) in {@code host} scope
+	 */
+	private String keyOf( String url ) {
+		if ( SCOPE_HOST.equals( scope ) ) {
+			try {
+				String authority = URI.create( url.trim() ).getAuthority();
+				if ( authority != null ) {
+					return authority.toLowerCase( Locale.ROOT );
+				}
+			} catch ( IllegalArgumentException e ) {
+				// Not a URI: a path, keyed by itself
+			}
+		}
+		return url;
+	}
+
+	private static String format( Instant instant ) {
+		return instant == null ? "" : instant.toString();
+	}
+
+}
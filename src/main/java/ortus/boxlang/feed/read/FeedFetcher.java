@@ -0,0 +1,486 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+import com.apptasticsoftware.rssreader.AbstractRssReader;
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+
+/**
+ * Fetches feed documents as metered streams, so parsing can stop, and the download with it, as soon as enough items have been
+ * read.
+ * <p>
+ * {@link #open(String, String, long)} returns the raw document of an http(s) URL, a file URI or a path, counting the bytes read
+ * from the wire (before gzip decoding). Closing the stream before the end aborts the HTTP exchange, so the rest of the body is
+ * never transferred.
+ * <p>
+ * An instance reads several feeds lazily, one after the other, through a reader: {@link #stream()} only opens a feed when the
+ * items of the previous one have been consumed, and closing the stream closes the feed being read. A feed that cannot be read
+ * is skipped, as the reader does, and reported by {@link #errors()}. {@link #bytesRead()} and {@link #stoppedEarly()} report
+ * on the downloads.
+ *
+ * @param <I> The item type of the reader
+ */
+public final class FeedFetcher<I extends Item> {
+
+	/**
+	 * The User-Agent of the requests when none is given: the one the module configures its readers with
+	 */
+	public static final String					DEFAULT_USER_AGENT	= "BoxLang-RSS-Module/1.0 (+https://boxlang.io)";
+
+	private static final String					ACCEPT				= "application/atom+xml, application/rss+xml, application/xml;q=0.9, */*;q=0.8";
+
+	// One client per timeout, the connect timeout being a setting of the client
+	private static final Map<Long, HttpClient>	CLIENTS				= new ConcurrentHashMap<>();
+
+	private final AbstractRssReader<?, I>		reader;
+	private final List<String>					urls;
+	private final List<MeteredInputStream>		opened				= new ArrayList<>();
+	private final Map<String, String>			status				= new LinkedHashMap<>();
+	private final Map<String, String>			errors				= new LinkedHashMap<>();
+	private String								userAgent			= null;
+	private long								timeoutSeconds		= 25;
+	private CircuitRegistry						circuits			= null;
+
+	/**
+	 * A stream that counts the bytes read through it and whether the end was reached.
+	 */
+	public static final class MeteredInputStream extends FilterInputStream {
+
+		private final MeteredInputStream	wire;
+		private long						bytesRead	= 0;
+		private boolean						complete	= false;
+
+		MeteredInputStream( InputStream in ) {
+			this( in, null );
+		}
+
+		/**
+		 * @param in   The stream to read
+		 * @param wire The encoded stream {@code in} decodes, whose bytes are the ones reported, or null
+		 */
+		MeteredInputStream( InputStream in, MeteredInputStream wire ) {
+			super( in );
+			this.wire = wire;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if ( b < 0 ) {
+				complete = true;
+			} else {
+				bytesRead++;
+			}
+			return b;
+		}
+
+		@Override
+		public int read( byte[] buffer, int offset, int length ) throws IOException {
+			int count = super.read( buffer, offset, length );
+			if ( count < 0 ) {
+				complete = true;
+			} else {
+				bytesRead += count;
+			}
+			return count;
+		}
+
+		@Override
+		public long skip( long n ) throws IOException {
+			long skipped = super.skip( n );
+			bytesRead += skipped;
+			return skipped;
+		}
+
+		/**
+		 * @return The number of bytes read so far, as transferred
+		 */
+		public long bytesRead() {
+			return wire != null ? wire.bytesRead() : bytesRead;
+		}
+
+		/**
+		 * @return Whether the end of the document was reached
+		 */
+		public boolean isComplete() {
+			return complete;
+		}
+	}
+
+	private FeedFetcher( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		this.reader	= reader;
+		this.urls	= List.copyOf( urls );
+	}
+
+	/**
+	 * Prepare a metered read of several feeds.
+	 *
+	 * @param reader The reader used to parse each feed
+	 * @param urls   The feed URLs, http(s), file URIs or paths
+	 *
+	 * @return The fetcher, to configure and then {@link #stream()}
+	 */
+	public static <I extends Item> FeedFetcher<I> of( AbstractRssReader<?, I> reader, Collection<String> urls ) {
+		return new FeedFetcher<>( reader, urls );
+	}
+
+	/**
+	 * @param userAgent The User-Agent of the requests
+	 *
+	 * @return This fetcher
+	 */
+	public FeedFetcher<I> setUserAgent( String userAgent ) {
+		this.userAgent = userAgent;
+		return this;
+	}
+
+	/**
+	 * @param seconds The request timeout in seconds
+	 *
+	 * @return This fetcher
+	 */
+	public FeedFetcher<I> setTimeout( long seconds ) {
+		this.timeoutSeconds = seconds;
+		return this;
+	}
+
+	/**
+	 * @param circuits The circuits the feeds are requested through: a feed whose circuit is open is not requested, and a feed
+	 *                 that fails or is refused is served from its last good items when there are some, as
+	 *                 {@link CircuitRegistry#read} does. Null to request every feed.
+	 *
+	 * @return This fetcher
+	 */
+	public FeedFetcher<I> setCircuits( CircuitRegistry circuits ) {
+		this.circuits = circuits;
+		return this;
+	}
+
+	/**
+	 * The items of every feed, lazily, in URL order.
+	 *
+	 * @return The item stream. Close it to abort the feed being downloaded.
+	 */
+	public Stream<I> stream() {
+		return urls.stream().flatMap( this::read );
+	}
+
+	/**
+	 * The items of one feed, or its last good items (or none) when it cannot be requested.
+	 */
+	private Stream<I> read( String url ) {
+		CircuitBreaker circuit = circuits == null ? null : circuits.circuit( url );
+		if ( circuit != null && !circuit.tryAcquire() ) {
+			return skip( url, CircuitRegistry.OPEN, null );
+		}
+		MeteredInputStream in;
+		try {
+			in = open( url, userAgent, timeoutSeconds );
+		} catch ( RuntimeException e ) {
+			if ( isCancellation( e ) ) {
+				if ( circuit != null ) {
+					circuit.release();
+				}
+				throw cancellation( e );
+			}
+			if ( circuit != null ) {
+				circuit.onFailure( e );
+			}
+			return skip( url, CircuitRegistry.FAILED, e );
+		}
+		synchronized ( opened ) {
+			opened.add( in );
+		}
+		Feed feed = new Feed( url, in, circuit );
+		return StreamSupport.stream( feed, false ).onClose( feed::close );
+	}
+
+	/**
+	 * Record a feed that is not read, and serve its last good items when its circuit has some.
+	 */
+	private Stream<I> skip( String url, String outcome, RuntimeException error ) {
+		List<I> stale = circuits == null ? null : circuits.lastGood( reader, url );
+		record( url, stale != null ? CircuitRegistry.STALE : outcome, error );
+		return stale != null ? stale.stream() : Stream.empty();
+	}
+
+	private void record( String url, String outcome, RuntimeException error ) {
+		synchronized ( opened ) {
+			status.put( url, outcome );
+			if ( error != null ) {
+				errors.put( url, String.valueOf( error.getMessage() ) );
+			}
+		}
+	}
+
+	/**
+	 * The items of an opened feed. A failure while they are parsed ends the feed instead of the whole read; the outcome is
+	 * reported to the circuit of the feed once the feed is closed, after its parse. A cancelled feed has no outcome: it only
+	 * releases its circuit.
+	 */
+	private final class Feed extends Spliterators.AbstractSpliterator<I> {
+
+		private final String				url;
+		private final MeteredInputStream	in;
+		private final CircuitBreaker		circuit;
+		private final Stream<I>				items;
+		private final Spliterator<I>		source;
+		private I							next	= null;
+		private RuntimeException			error		= null;
+		private boolean						cancelled	= false;
+		private boolean						closed		= false;
+
+		Feed( String url, MeteredInputStream in, CircuitBreaker circuit ) {
+			super( Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL );
+			this.url		= url;
+			this.in			= in;
+			this.circuit	= circuit;
+			this.items		= reader.read( in );
+			this.source		= items.spliterator();
+		}
+
+		@Override
+		public boolean tryAdvance( Consumer<? super I> action ) {
+			if ( error != null ) {
+				return false;
+			}
+			// Parse outside of the action, so a failure of the consumer is not taken for a failure of the feed
+			try {
+				if ( !source.tryAdvance( item -> next = item ) ) {
+					return false;
+				}
+			} catch ( RuntimeException e ) {
+				if ( isCancellation( e ) ) {
+					cancelled = true;
+					throw cancellation( e );
+				}
+				error = e;
+				return false;
+			}
+			I item = next;
+			next = null;
+			try {
+				action.accept( item );
+			} catch ( CancellationException e ) {
+				cancelled = true;
+				throw e;
+			}
+			return true;
+		}
+
+		void close() {
+			if ( closed ) {
+				return;
+			}
+			closed = true;
+			if ( cancelled || isCancellation( null ) ) {
+				if ( circuit != null ) {
+					circuit.release();
+				}
+			} else if ( error == null ) {
+				record( url, CircuitRegistry.OK, null );
+				if ( circuit != null ) {
+					circuit.onSuccess();
+				}
+			} else {
+				record( url, CircuitRegistry.FAILED, error );
+				if ( circuit != null ) {
+					circuit.onFailure( error );
+				}
+			}
+			try {
+				items.close();
+			} finally {
+				FeedFetcher.this.close( in );
+			}
+		}
+	}
+
+	/**
+	 * A failure of a cancelled read is its cancellation, not a failure of the feed.
+	 *
+	 * @param error The failure, or null to only check the read of the current thread
+	 */
+	private static boolean isCancellation( RuntimeException error ) {
+		ReadCancellation cancellation = ReadCancellation.current();
+		return error instanceof CancellationException || cancellation != null && cancellation.isCancelled();
+	}
+
+	private static CancellationException cancellation( RuntimeException error ) {
+		return error instanceof CancellationException cancelled ? cancelled : new CancellationException( "The feed read was cancelled" );
+	}
+
+	/**
+	 * @return The number of bytes read from all feeds so far
+	 */
+	public long bytesRead() {
+		synchronized ( opened ) {
+			return opened.stream().mapToLong( MeteredInputStream::bytesRead ).sum();
+		}
+	}
+
+	/**
+	 * @return Whether a feed was not read to its end, or not reached at all
+	 */
+	public boolean stoppedEarly() {
+		synchronized ( opened ) {
+			return status.size() < urls.size() || opened.stream().anyMatch( in -> !in.isComplete() );
+		}
+	}
+
+	/**
+	 * @return Whether every feed reached was read
+	 */
+	public boolean allOk() {
+		synchronized ( opened ) {
+			return status.values().stream().allMatch( CircuitRegistry.OK::equals );
+		}
+	}
+
+	/**
+	 * @return The status of each feed reached: {@code ok}, {@code failed}, and with circuits {@code open} or {@code stale} (see
+	 *         {@link CircuitRegistry.CircuitRead})
+	 */
+	public IStruct statusStruct() {
+		IStruct result = new Struct( Struct.TYPES.LINKED );
+		synchronized ( opened ) {
+			status.forEach( result::put );
+		}
+		return result;
+	}
+
+	/**
+	 * @return The error message of each feed that could not be read
+	 */
+	public IStruct errors() {
+		IStruct result = new Struct( Struct.TYPES.LINKED );
+		synchronized ( opened ) {
+			errors.forEach( result::put );
+		}
+		return result;
+	}
+
+	/**
+	 * Open a feed document.
+	 *
+	 * @param url            An http(s) URL, a file URI or a path
+	 * @param userAgent      The User-Agent of the request, or null for {@link #DEFAULT_USER_AGENT}
+	 * @param timeoutSeconds The connect and request timeout in seconds, 0 for none
+	 *
+	 * @return The metered document stream. Closing it early aborts the download.
+	 */
+	public static MeteredInputStream open( String url, String userAgent, long timeoutSeconds ) {
+		// Within a cancellable read, the document is closed (and its download aborted) on cancellation
+		ReadCancellation cancellation = ReadCancellation.current();
+		if ( cancellation == null ) {
+			return openDocument( url, userAgent, timeoutSeconds );
+		}
+		cancellation.check();
+		try {
+			return cancellation.register( openDocument( url, userAgent, timeoutSeconds ) );
+		} catch ( BoxIOException e ) {
+			// Interrupted by the cancellation
+			cancellation.check();
+			throw e;
+		}
+	}
+
+	private static MeteredInputStream openDocument( String url, String userAgent, long timeoutSeconds ) {
+		try {
+			URI		uri		= URI.create( url );
+			String	scheme	= uri.getScheme();
+			if ( scheme == null || scheme.length() == 1 ) {
+				// A path, possibly with a Windows drive letter
+				return new MeteredInputStream( Files.newInputStream( Path.of( url ) ) );
+			}
+			if ( "file".equalsIgnoreCase( scheme ) ) {
+				return new MeteredInputStream( Files.newInputStream( Path.of( uri ) ) );
+			}
+
+			HttpRequest.Builder request = HttpRequest.newBuilder( uri )
+			    .header( "Accept", ACCEPT )
+			    .header( "Accept-Encoding", "gzip" )
+			    .header( "User-Agent", userAgent != null && !userAgent.isEmpty() ? userAgent : DEFAULT_USER_AGENT )
+			    .GET();
+			if ( timeoutSeconds > 0 ) {
+				request.timeout( Duration.ofSeconds( timeoutSeconds ) );
+			}
+
+			HttpResponse<InputStream> response = client( timeoutSeconds ).send( request.build(), HttpResponse.BodyHandlers.ofInputStream() );
+			if ( response.statusCode() >= 400 ) {
+				response.body().close();
+				throw new BoxIOException( "Unable to read the feed [" + url + "]: HTTP " + response.statusCode(), null );
+			}
+
+			MeteredInputStream metered = new MeteredInputStream( response.body() );
+			boolean gzip = response.headers().firstValue( "Content-Encoding" ).map( "gzip"::equalsIgnoreCase ).orElse( false );
+			// Count the bytes on the wire, decode on top
+			return gzip ? new MeteredInputStream( new GZIPInputStream( metered ), metered ) : metered;
+		} catch ( IOException | IllegalArgumentException e ) {
+			throw new BoxIOException( "Unable to read the feed [" + url + "]: " + e.getMessage(), e );
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new BoxIOException( "Interrupted while reading the feed [" + url + "]", e );
+		}
+	}
+
+	private static HttpClient client( long timeoutSeconds ) {
+		return CLIENTS.computeIfAbsent( timeoutSeconds, seconds -> {
+			HttpClient.Builder builder = HttpClient.newBuilder().followRedirects( HttpClient.Redirect.NORMAL );
+			if ( seconds > 0 ) {
+				builder.connectTimeout( Duration.ofSeconds( seconds ) );
+			}
+			return builder.build();
+		} );
+	}
+
+	private void close( MeteredInputStream in ) {
+		try {
+			in.close();
+		} catch ( IOException e ) {
+			throw new UncheckedIOException( e );
+		}
+	}
+
+}
@@ -0,0 +1,140 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The feed-level {@code <link rel="..." href="...">} elements of a feed document: Atom links and {@code atom:link} elements in
+ * RSS channels, such as the RFC 5005 {@code next} and {@code prev-archive} links, {@code self} or the WebSub {@code hub}.
+ * <p>
+ * The document is scanned with StAX; items and entries are skipped, and the scan ends at the first item once a paging link has
+ * been found, since feeds declare them in the header.
+ */
+public final class FeedLinks {
+
+	private static final XMLInputFactory	FACTORY;
+
+	static {
+		FACTORY = XMLInputFactory.newInstance();
+		FACTORY.setProperty( XMLInputFactory.SUPPORT_DTD, false );
+		FACTORY.setProperty( XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false );
+		FACTORY.setProperty( XMLInputFactory.IS_COALESCING, false );
+	}
+
+	private final Map<String, String> links;
+
+	private FeedLinks( Map<String, String> links ) {
+		this.links = links;
+	}
+
+	/**
+	 * Scan a feed document for its feed-level links.
+	 *
+	 * @param document The feed document, not closed
+	 * @param base     The document URL, used to resolve relative links. May be null
+	 *
+	 * @return The links, the first link per relation wins
+	 *
+	 * @throws XMLStreamException If the document is not well-formed
+	 */
+	public static FeedLinks scan( InputStream document, String base ) throws XMLStreamException {
+		Map<String, String>	links	= new LinkedHashMap<>();
+		XMLStreamReader		xml		= FACTORY.createXMLStreamReader( document );
+		try {
+			while ( xml.hasNext() ) {
+				if ( xml.next() != XMLStreamConstants.START_ELEMENT ) {
+					continue;
+				}
+				String name = xml.getLocalName();
+				if ( "item".equals( name ) || "entry".equals( name ) ) {
+					if ( links.containsKey( "next" ) || links.containsKey( "prev-archive" ) ) {
+						break;
+					}
+					skipElement( xml );
+				} else if ( "link".equals( name ) ) {
+					String	rel		= xml.getAttributeValue( null, "rel" );
+					String	href	= xml.getAttributeValue( null, "href" );
+					if ( rel != null && href != null && !href.isBlank() ) {
+						links.putIfAbsent( rel.trim().toLowerCase(), resolve( base, href.trim() ) );
+					}
+				}
+			}
+		} finally {
+			xml.close();
+		}
+		return new FeedLinks( links );
+	}
+
+	/**
+	 * Get a link by relation.
+	 *
+	 * @param rel The relation, e.g. {@code next}
+	 *
+	 * @return The absolute href, or null
+	 */
+	public String get( String rel ) {
+		return links.get( rel.toLowerCase() );
+	}
+
+	/**
+	 * The link to the next (older) page: RFC 5005 paged feeds use {@code next}, archived feeds {@code prev-archive}.
+	 *
+	 * @return The absolute href, or null on the last page
+	 */
+	public String nextPage() {
+		String next = links.get( "next" );
+		return next != null ? next : links.get( "prev-archive" );
+	}
+
+	/**
+	 * @return All links, by relation
+	 */
+	public Map<String, String> asMap() {
+		return Map.copyOf( links );
+	}
+
+	private static void skipElement( XMLStreamReader xml ) throws XMLStreamException {
+		int depth = 1;
+		while ( depth > 0 && xml.hasNext() ) {
+			int event = xml.next();
+			if ( event == XMLStreamConstants.START_ELEMENT ) {
+				depth++;
+			} else if ( event == XMLStreamConstants.END_ELEMENT ) {
+				depth--;
+			}
+		}
+	}
+
+	private static String resolve( String base, String href ) {
+		if ( base == null ) {
+			return href;
+		}
+		try {
+			return URI.create( base ).resolve( href ).toString();
+		} catch ( IllegalArgumentException e ) {
+			return href;
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.util.List;
+
+import com.apptasticsoftware.rssreader.Item;
+
+/**
+ * Null-safe accessors for the parsed item fields used by the Java side of the module.
+ */
+public final class ItemFields {
+
+	/**
+	 * Returned by {@link #epochMillis(Item)} when an item has no usable date.
+	 */
+	public static final long NO_DATE = Long.MIN_VALUE;
+
+	private ItemFields() {
+	}
+
+	/**
+	 * The item date in epoch millis: the publication date, falling back to the updated date.
+	 *
+	 * @param item The parsed item
+	 *
+	 * @return The epoch millis or {@link #NO_DATE}
+	 */
+	public static long epochMillis( Item item ) {
+		return item.getPubDateZonedDateTime()
+		    .or( item::getUpdatedZonedDateTime )
+		    .map( d -> d.toInstant().toEpochMilli() )
+		    .orElse( NO_DATE );
+	}
+
+	/**
+	 * All category names of the item; the first one is the item {@code category}.
+	 *
+	 * @param item The parsed item
+	 *
+	 * @return The category names, never null
+	 */
+	public static List<String> categories( Item item ) {
+		List<String> categories = item.getCategories();
+		return categories == null ? List.of() : categories;
+	}
+
+	/**
+	 * Whether the item has at least one enclosure.
+	 *
+	 * @param item The parsed item
+	 *
+	 * @return True if the item has enclosures
+	 */
+	public static boolean hasEnclosures( Item item ) {
+		var enclosures = item.getEnclosures();
+		return enclosures != null && !enclosures.isEmpty();
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.dynamic.casters.BooleanCaster;
+import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.dynamic.casters.StringCaster;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * Compiles a declarative filter struct into a Java {@link Predicate} over parsed feed items, so filtering runs without a
+ * BoxLang function call per item.
+ * <p>
+ * Supported criteria (all of them must match):
+ * <ul>
+ * <li>{@code since} - date; the item publication (or updated) date must be on or after it</li>
+ * <li>{@code until} - date; the item publication (or updated) date must be on or before it</li>
+ * <li>{@code categories} - array or list; the item must have at least one of the categories (case-insensitive)</li>
+ * <li>{@code titleContains} - string; the title must contain it (case-insensitive)</li>
+ * <li>{@code hasEnclosure} - boolean; whether the item must (or must not) have enclosures</li>
+ * <li>{@code author} - string; the author must contain it (case-insensitive)</li>
+ * </ul>
+ * An empty struct matches every item.
+ */
+public final class ItemFilters {
+
+	private static final Key	since			= Key.of( "since" );
+	private static final Key	until			= Key.of( "until" );
+	private static final Key	categories		= Key.of( "categories" );
+	private static final Key	titleContains	= Key.of( "titleContains" );
+	private static final Key	hasEnclosure	= Key.of( "hasEnclosure" );
+	private static final Key	author			= Key.of( "author" );
+
+	private ItemFilters() {
+	}
+
+	/**
+	 * Compiles the filter struct into a predicate.
+	 *
+	 * @param spec The declarative filter struct
+	 *
+	 * @return A predicate implementing every criterion of the struct
+	 *
+	 * @throws BoxValidationException If the struct contains an unknown criterion
+	 */
+	public static Predicate<Item> compile( IStruct spec ) {
+		List<Predicate<Item>> criteria = new ArrayList<>();
+
+		for ( Map.Entry<Key, Object> entry : spec.entrySet() ) {
+			Key		criterion	= entry.getKey();
+			Object	value		= entry.getValue();
+			if ( value == null ) {
+				continue;
+			}
+
+			if ( criterion.equals( since ) ) {
+				long min = DateTimeCaster.cast( value ).toEpochMillis();
+				criteria.add( item -> {
+					long date = ItemFields.epochMillis( item );
+					return date != ItemFields.NO_DATE && date >= min;
+				} );
+			} else if ( criterion.equals( until ) ) {
+				long max = DateTimeCaster.cast( value ).toEpochMillis();
+				criteria.add( item -> {
+					long date = ItemFields.epochMillis( item );
+					return date != ItemFields.NO_DATE && date <= max;
+				} );
+			} else if ( criterion.equals( categories ) ) {
+				Set<String> wanted = lowerCaseSet( value );
+				criteria.add( item -> {
+					for ( String category : ItemFields.categories( item ) ) {
+						if ( wanted.contains( category.toLowerCase( Locale.ROOT ) ) ) {
+							return true;
+						}
+					}
+					return false;
+				} );
+			} else if ( criterion.equals( titleContains ) ) {
+				String needle = StringCaster.cast( value ).toLowerCase( Locale.ROOT );
+				criteria.add( item -> item.getTitle().map( t -> t.toLowerCase( Locale.ROOT ).contains( needle ) ).orElse( false ) );
+			} else if ( criterion.equals( hasEnclosure ) ) {
+				boolean expected = BooleanCaster.cast( value );
+				criteria.add( item -> ItemFields.hasEnclosures( item ) == expected );
+			} else if ( criterion.equals( author ) ) {
+				String needle = StringCaster.cast( value ).toLowerCase( Locale.ROOT );
+				criteria.add( item -> item.getAuthor().map( a -> a.toLowerCase( Locale.ROOT ).contains( needle ) ).orElse( false ) );
+			} else {
+				throw new BoxValidationException(
+				    "Unknown filter criterion [" + criterion.getName() + "]. Valid criteria are: since, until, categories, titleContains, hasEnclosure, author."
+				);
+			}
+		}
+
+		return criteria.stream().reduce( Predicate::and ).orElse( item -> true );
+	}
+
+	/**
+	 * Converts an array or a comma separated list into a set of lower-cased, trimmed values.
+	 */
+	private static Set<String> lowerCaseSet( Object value ) {
+		Set<String>	result	= new HashSet<>();
+		Iterable<?>	values	= value instanceof Iterable<?> iterable ? iterable : List.of( StringCaster.cast( value ).split( "," ) );
+		for ( Object v : values ) {
+			String s = StringCaster.cast( v ).trim();
+			if ( !s.isEmpty() ) {
+				result.add( s.toLowerCase( Locale.ROOT ) );
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,355 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.dynamic.casters.DateTimeCaster;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * An in-memory inverted index of fetched feed items, for keyword, category and date-range search without scanning every item.
+ * <p>
+ * The title, the description (without markup) and the categories of each item are tokenized into lowercase words; each word
+ * and each category has a posting list of the items that contain it, sorted newest first. A query walks the shortest posting
+ * list, restricted to the date range, and checks the other criteria on each candidate, so it stops as soon as enough results
+ * are found.
+ * <p>
+ * Items are identified by their guid, else their link, else their title: adding an item again, when its feed is read again,
+ * replaces it. The index holds at most {@code maxItems} items; beyond that the oldest ones are evicted.
+ */
+public final class ItemIndex {
+
+	/**
+	 * The default maximum number of indexed items
+	 */
+	public static final int					DEFAULT_MAX_ITEMS	= 10_000;
+
+	private static final Pattern			MARKUP				= Pattern.compile( "<[^>]*>|&[a-zA-Z#0-9]+;" );
+	private static final Pattern			NON_WORD			= Pattern.compile( "[^\\p{L}\\p{N}]+" );
+	private static final ItemIndex			SHARED				= new ItemIndex( DEFAULT_MAX_ITEMS );
+
+	// Newest first; the sequence keeps items of the same date apart
+	private static final Comparator<Doc>	NEWEST_FIRST		= Comparator.comparingLong( Doc::date ).reversed()
+	    .thenComparing( Comparator.comparingLong( Doc::seq ).reversed() );
+
+	private final ReadWriteLock				lock				= new ReentrantReadWriteLock();
+	private final Map<String, Doc>			byId				= new HashMap<>();
+	private final NavigableSet<Doc>			byDate				= new TreeSet<>( NEWEST_FIRST );
+	private final Map<String, TreeSet<Doc>>	terms				= new HashMap<>();
+	private final Map<String, TreeSet<Doc>>	categories			= new HashMap<>();
+	private long							sequence			= 0;
+	private volatile int					maxItems;
+
+	/**
+	 * An indexed item.
+	 *
+	 * @param seq          The insertion sequence
+	 * @param id           The identity: guid, link or title
+	 * @param date         The publication (or updated) date in epoch millis, {@link ItemFields#NO_DATE} when unknown
+	 * @param published    The publication (or updated) date, or null
+	 * @param title        The title
+	 * @param link         The link
+	 * @param description  The description
+	 * @param categoryList The category names
+	 * @param channelTitle The title of the feed
+	 * @param words        The tokens of the title, description and categories
+	 * @param categoryKeys The lowercase category names
+	 */
+	private record Doc(
+	    long seq,
+	    String id,
+	    long date,
+	    ZonedDateTime published,
+	    String title,
+	    String link,
+	    String description,
+	    List<String> categoryList,
+	    String channelTitle,
+	    Set<String> words,
+	    Set<String> categoryKeys ) {
+	}
+
+	/**
+	 * Create an index.
+	 *
+	 * @param maxItems The maximum number of indexed items
+	 */
+	public ItemIndex( int maxItems ) {
+		this.maxItems = Math.max( 1, maxItems );
+	}
+
+	/**
+	 * @return The module-wide index
+	 */
+	public static ItemIndex shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Index parsed items, replacing the ones already indexed with the same identity, then evict the oldest items beyond the
+	 * maximum.
+	 *
+	 * @param items The parsed items
+	 *
+	 * @return The number of items indexed
+	 */
+	public int addAll( List<? extends Item> items ) {
+		List<Doc> docs = new ArrayList<>( items.size() );
+		for ( Item item : items ) {
+			Doc doc = toDoc( item );
+			if ( doc != null ) {
+				docs.add( doc );
+			}
+		}
+		lock.writeLock().lock();
+		try {
+			for ( Doc doc : docs ) {
+				Doc indexed = new Doc( ++sequence, doc.id(), doc.date(), doc.published(), doc.title(), doc.link(), doc.description(),
+				    doc.categoryList(), doc.channelTitle(), doc.words(), doc.categoryKeys() );
+				remove( byId.put( indexed.id(), indexed ) );
+				byDate.add( indexed );
+				indexed.words().forEach( word -> terms.computeIfAbsent( word, w -> new TreeSet<>( NEWEST_FIRST ) ).add( indexed ) );
+				indexed.categoryKeys().forEach( key -> categories.computeIfAbsent( key, k -> new TreeSet<>( NEWEST_FIRST ) ).add( indexed ) );
+			}
+			while ( byDate.size() > maxItems ) {
+				Doc oldest = byDate.last();
+				byId.remove( oldest.id() );
+				remove( oldest );
+			}
+			return docs.size();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Search the index, newest items first.
+	 *
+	 * @param query      Keywords, all of which must appear in the title, description or categories; empty for any
+	 * @param category   A category the items must have (case-insensitive); empty for any
+	 * @param since      The oldest date, as a date or a date string; null or empty for no limit
+	 * @param until      The newest date, as a date or a date string; null or empty for no limit
+	 * @param maxResults The maximum number of results; 0 for no limit
+	 *
+	 * @return The matching items as structs: title, link, description, pubdate, categories, channelTitle and id (the guid, else the link, else the title)
+	 */
+	public Array search( String query, String category, Object since, Object until, int maxResults ) {
+		Set<String>	words		= tokenize( query );
+		String		categoryKey	= category == null ? "" : category.trim().toLowerCase( Locale.ROOT );
+		long		from		= toMillis( since, "since" );
+		long		to			= toMillis( until, "until" );
+		int			limit		= maxResults > 0 ? maxResults : Integer.MAX_VALUE;
+		Array		results		= new Array();
+
+		lock.readLock().lock();
+		try {
+			// Walk the shortest posting list; a missing word or category matches nothing
+			NavigableSet<Doc> candidates = byDate;
+			for ( String word : words ) {
+				TreeSet<Doc> postings = terms.get( word );
+				if ( postings == null ) {
+					return results;
+				}
+				candidates = postings.size() < candidates.size() ? postings : candidates;
+			}
+			if ( !categoryKey.isEmpty() ) {
+				TreeSet<Doc> postings = categories.get( categoryKey );
+				if ( postings == null ) {
+					return results;
+				}
+				candidates = postings.size() < candidates.size() ? postings : candidates;
+			}
+
+			for ( Doc doc : candidates ) {
+				if ( doc.date() > to ) {
+					continue;
+				}
+				if ( doc.date() < from ) {
+					// Newest first: every following item is older
+					break;
+				}
+				if ( doc.words().containsAll( words ) && ( categoryKey.isEmpty() || doc.categoryKeys().contains( categoryKey ) ) ) {
+					results.add( toStruct( doc ) );
+					if ( results.size() >= limit ) {
+						break;
+					}
+				}
+			}
+			return results;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param maxItems The maximum number of indexed items; the oldest are evicted on the next update
+	 *
+	 * @return This index
+	 */
+	public ItemIndex setMaxItems( int maxItems ) {
+		if ( maxItems < 1 ) {
+			throw new BoxValidationException( "Invalid index maxItems [" + maxItems + "]. Must be 1 or more." );
+		}
+		this.maxItems = maxItems;
+		return this;
+	}
+
+	/**
+	 * @return The number of indexed items
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return byDate.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return The number of distinct indexed words
+	 */
+	public int terms() {
+		lock.readLock().lock();
+		try {
+			return terms.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Remove every indexed item.
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			byId.clear();
+			byDate.clear();
+			terms.clear();
+			categories.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Split a text into lowercase words.
+	 *
+	 * @param text The text, may be null
+	 *
+	 * @return The distinct words
+	 */
+	public static Set<String> tokenize( String text ) {
+		Set<String> words = new LinkedHashSet<>();
+		if ( text == null || text.isBlank() ) {
+			return words;
+		}
+		for ( String word : NON_WORD.split( text.toLowerCase( Locale.ROOT ) ) ) {
+			if ( !word.isEmpty() ) {
+				words.add( word );
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Remove a replaced or evicted item from the date order and the posting lists.
+	 */
+	private void remove( Doc doc ) {
+		if ( doc == null ) {
+			return;
+		}
+		byDate.remove( doc );
+		doc.words().forEach( word -> removePosting( terms, word, doc ) );
+		doc.categoryKeys().forEach( key -> removePosting( categories, key, doc ) );
+	}
+
+	private static void removePosting( Map<String, TreeSet<Doc>> index, String key, Doc doc ) {
+		TreeSet<Doc> postings = index.get( key );
+		if ( postings != null && postings.remove( doc ) && postings.isEmpty() ) {
+			index.remove( key );
+		}
+	}
+
+	/**
+	 * The indexed form of a parsed item, or null when it has no identity.
+	 */
+	private static Doc toDoc( Item item ) {
+		String	title		= item.getTitle().orElse( "" );
+		String	link		= item.getLink().orElse( "" );
+		String	id			= item.getGuid().orElse( link.isEmpty() ? title : link );
+		if ( id.isEmpty() ) {
+			return null;
+		}
+		String			description		= item.getDescription().orElse( "" );
+		List<String>	categoryList	= ItemFields.categories( item );
+		Set<String>		words			= tokenize( title );
+		words.addAll( tokenize( MARKUP.matcher( description ).replaceAll( " " ) ) );
+		Set<String> categoryKeys = new LinkedHashSet<>();
+		for ( String name : categoryList ) {
+			categoryKeys.add( name.trim().toLowerCase( Locale.ROOT ) );
+			words.addAll( tokenize( name ) );
+		}
+		ZonedDateTime	published		= item.getPubDateZonedDateTime().or( item::getUpdatedZonedDateTime ).orElse( null );
+		String			channelTitle	= item.getChannel() == null || item.getChannel().getTitle() == null ? "" : item.getChannel().getTitle();
+		return new Doc( 0, id, ItemFields.epochMillis( item ), published, title, link, description, List.copyOf( categoryList ), channelTitle,
+		    words, categoryKeys );
+	}
+
+	private static IStruct toStruct( Doc doc ) {
+		return Struct.linkedOf(
+		    "title", doc.title(),
+		    "link", doc.link(),
+		    "description", doc.description(),
+		    "pubdate", doc.published() == null ? "" : new DateTime( doc.published() ),
+		    "categories", Array.fromList( doc.categoryList() ),
+		    "channelTitle", doc.channelTitle(),
+		    "id", doc.id()
+		);
+	}
+
+	private static long toMillis( Object value, String name ) {
+		if ( value == null || "".equals( value ) ) {
+			return "since".equals( name ) ? Long.MIN_VALUE : Long.MAX_VALUE;
+		}
+		try {
+			return DateTimeCaster.cast( value ).toEpochMillis();
+		} catch ( RuntimeException e ) {
+			throw new BoxValidationException( "Invalid " + name + " date [" + value + "]" );
+		}
+	}
+
+}
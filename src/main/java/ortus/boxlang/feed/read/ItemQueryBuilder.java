@@ -0,0 +1,233 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.apptasticsoftware.rssreader.Channel;
+import com.apptasticsoftware.rssreader.Enclosure;
+import com.apptasticsoftware.rssreader.Item;
+import com.apptasticsoftware.rssreader.module.itunes.ItunesItem;
+import com.apptasticsoftware.rssreader.module.mediarss.MediaRssItem;
+
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.DateTime;
+import ortus.boxlang.runtime.types.Query;
+import ortus.boxlang.runtime.types.QueryColumnType;
+
+/**
+ * Builds a BoxLang {@link Query} straight from parsed feed items, for the {@code query} output of {@code bx:feed}.
+ * <p>
+ * Each item is written into a single row array sized to the column count, in one pass over the items and without the
+ * intermediate struct per item used by the array output. The columns mirror the keys of the array output; enclosures are
+ * flattened to the first enclosure ({@code enclosureUrl}, {@code enclosureType}, {@code enclosureLength}), the categories to a
+ * comma separated list and the Media RSS thumbnail to {@code mediaThumbnail*} columns.
+ */
+public final class ItemQueryBuilder {
+
+	private static final List<Column>	BASE_COLUMNS	= List.of(
+	    new Column( "title", QueryColumnType.VARCHAR ),
+	    new Column( "content", QueryColumnType.VARCHAR ),
+	    new Column( "description", QueryColumnType.VARCHAR ),
+	    new Column( "pubdate", QueryColumnType.TIMESTAMP ),
+	    new Column( "updated", QueryColumnType.TIMESTAMP ),
+	    new Column( "link", QueryColumnType.VARCHAR ),
+	    new Column( "author", QueryColumnType.VARCHAR ),
+	    new Column( "category", QueryColumnType.VARCHAR ),
+	    new Column( "categories", QueryColumnType.VARCHAR ),
+	    new Column( "guid", QueryColumnType.VARCHAR ),
+	    new Column( "isPermaLink", QueryColumnType.VARCHAR ),
+	    new Column( "comments", QueryColumnType.VARCHAR ),
+	    new Column( "enclosureUrl", QueryColumnType.VARCHAR ),
+	    new Column( "enclosureType", QueryColumnType.VARCHAR ),
+	    new Column( "enclosureLength", QueryColumnType.BIGINT ),
+	    new Column( "channelTitle", QueryColumnType.VARCHAR )
+	);
+
+	private static final List<Column>	ITUNES_COLUMNS	= List.of(
+	    new Column( "itunesDuration", QueryColumnType.VARCHAR ),
+	    new Column( "itunesExplicit", QueryColumnType.BIT ),
+	    new Column( "itunesTitle", QueryColumnType.VARCHAR ),
+	    new Column( "itunesSubtitle", QueryColumnType.VARCHAR ),
+	    new Column( "itunesSummary", QueryColumnType.VARCHAR ),
+	    new Column( "itunesKeywords", QueryColumnType.VARCHAR ),
+	    new Column( "itunesEpisode", QueryColumnType.INTEGER ),
+	    new Column( "itunesSeason", QueryColumnType.INTEGER ),
+	    new Column( "itunesEpisodeType", QueryColumnType.VARCHAR ),
+	    new Column( "itunesImage", QueryColumnType.VARCHAR ),
+	    new Column( "itunesBlock", QueryColumnType.BIT )
+	);
+
+	private static final List<Column>	MEDIA_COLUMNS	= List.of(
+	    new Column( "mediaThumbnailUrl", QueryColumnType.VARCHAR ),
+	    new Column( "mediaThumbnailWidth", QueryColumnType.INTEGER ),
+	    new Column( "mediaThumbnailHeight", QueryColumnType.INTEGER ),
+	    new Column( "mediaThumbnailTime", QueryColumnType.VARCHAR )
+	);
+
+	/**
+	 * A query column definition
+	 */
+	private record Column( Key name, QueryColumnType type ) {
+
+		Column( String name, QueryColumnType type ) {
+			this( Key.of( name ), type );
+		}
+	}
+
+	private ItemQueryBuilder() {
+	}
+
+	/**
+	 * Build the query for the given items.
+	 *
+	 * @param items    The parsed items, already filtered, sorted and limited
+	 * @param itunes   Whether to include the iTunes columns
+	 * @param mediaRss Whether to include the Media RSS thumbnail columns
+	 *
+	 * @return The query, one row per item
+	 */
+	public static Query build( List<? extends Item> items, boolean itunes, boolean mediaRss ) {
+		return build( items, itunes, mediaRss, StringPool.forMode( StringPool.NONE ) );
+	}
+
+	/**
+	 * Build the query for the given items, sharing the repeated values (author, categories, enclosure type, channel title)
+	 * through a pool.
+	 *
+	 * @param items    The parsed items, already filtered, sorted and limited
+	 * @param itunes   Whether to include the iTunes columns
+	 * @param mediaRss Whether to include the Media RSS thumbnail columns
+	 * @param pool     The pool of the repeated values
+	 *
+	 * @return The query, one row per item
+	 */
+	public static Query build( List<? extends Item> items, boolean itunes, boolean mediaRss, StringPool pool ) {
+		List<Column> columns = new ArrayList<>( BASE_COLUMNS );
+		if ( itunes ) {
+			columns.addAll( ITUNES_COLUMNS );
+		}
+		if ( mediaRss ) {
+			columns.addAll( MEDIA_COLUMNS );
+		}
+
+		Query query = new Query();
+		for ( Column column : columns ) {
+			query.addColumn( column.name(), column.type() );
+		}
+
+		int width = columns.size();
+		for ( Item item : items ) {
+			Object[]		row			= new Object[ width ];
+			List<String>	categories	= ItemFields.categories( item );
+			int				c			= 0;
+
+			row[ c++ ]	= item.getTitle().orElse( "" );
+			row[ c++ ]	= item.getContent().orElse( "" );
+			row[ c++ ]	= item.getDescription().orElse( "" );
+			row[ c++ ]	= toDateTime( item.getPubDateZonedDateTime() );
+			row[ c++ ]	= toDateTime( item.getUpdatedZonedDateTime() );
+			row[ c++ ]	= item.getLink().orElse( "" );
+			row[ c++ ]	= pool.intern( item.getAuthor().orElse( "" ) );
+			row[ c++ ]	= pool.intern( categories.isEmpty() ? "" : categories.get( 0 ) );
+			row[ c++ ]	= pool.intern( String.join( ",", categories ) );
+			row[ c++ ]	= item.getGuid().orElse( "" );
+			row[ c++ ]	= item.getIsPermaLink().map( String::valueOf ).orElse( "" );
+			row[ c++ ]	= item.getComments().orElse( "" );
+
+			List<Enclosure> enclosures = item.getEnclosures();
+			if ( enclosures != null && !enclosures.isEmpty() ) {
+				Enclosure enclosure = enclosures.get( 0 );
+				row[ c++ ]	= enclosure.getUrl() == null ? "" : enclosure.getUrl();
+				row[ c++ ]	= enclosure.getType() == null ? "" : pool.intern( enclosure.getType() );
+				row[ c++ ]	= enclosure.getLength().orElse( 0L );
+			} else {
+				row[ c++ ]	= "";
+				row[ c++ ]	= "";
+				row[ c++ ]	= 0L;
+			}
+
+			Channel channel = item.getChannel();
+			row[ c++ ] = channel == null || channel.getTitle() == null ? "" : pool.intern( channel.getTitle() );
+
+			if ( itunes ) {
+				c = addItunes( row, c, item );
+			}
+			if ( mediaRss ) {
+				addMediaThumbnail( row, c, item );
+			}
+
+			query.addRow( row );
+		}
+
+		return query;
+	}
+
+	/**
+	 * Fill the iTunes columns, defaulting them when the item was not parsed by the iTunes reader.
+	 */
+	private static int addItunes( Object[] row, int c, Item item ) {
+		if ( item instanceof ItunesItem i ) {
+			row[ c++ ]	= i.getItunesDuration().orElse( "" );
+			row[ c++ ]	= i.isItunesExplicit();
+			row[ c++ ]	= i.getItunesTitle().orElse( "" );
+			row[ c++ ]	= i.getItunesSubtitle().orElse( "" );
+			row[ c++ ]	= i.getItunesSummary().orElse( "" );
+			row[ c++ ]	= i.getItunesKeywords().orElse( "" );
+			row[ c++ ]	= valueOr( i.getItunesEpisode(), 0 );
+			row[ c++ ]	= valueOr( i.getItunesSeason(), 0 );
+			row[ c++ ]	= i.getItunesEpisodeType().orElse( "" );
+			row[ c++ ]	= valueOr( i.getItunesImage(), "" );
+			row[ c++ ]	= i.isItunesBlock();
+			return c;
+		}
+		Object[] defaults = { "", false, "", "", "", "", 0, 0, "", "", false };
+		System.arraycopy( defaults, 0, row, c, defaults.length );
+		return c + defaults.length;
+	}
+
+	/**
+	 * Fill the Media RSS thumbnail columns, defaulting them when there is no thumbnail.
+	 */
+	private static void addMediaThumbnail( Object[] row, int c, Item item ) {
+		if ( item instanceof MediaRssItem m ) {
+			var thumbnail = m.getMediaThumbnail();
+			if ( thumbnail.isPresent() ) {
+				var t = thumbnail.get();
+				row[ c++ ]	= t.getUrl() == null ? "" : t.getUrl();
+				row[ c++ ]	= valueOr( t.getWidth(), 0 );
+				row[ c++ ]	= valueOr( t.getHeight(), 0 );
+				row[ c ]	= valueOr( t.getTime(), "" );
+				return;
+			}
+		}
+		row[ c++ ]	= "";
+		row[ c++ ]	= 0;
+		row[ c++ ]	= 0;
+		row[ c ]	= "";
+	}
+
+	private static DateTime toDateTime( Optional<ZonedDateTime> date ) {
+		return date.map( DateTime::new ).orElse( null );
+	}
+
+	private static Object valueOr( Optional<?> value, Object defaultValue ) {
+		return value.isPresent() ? value.get() : defaultValue;
+	}
+
+}
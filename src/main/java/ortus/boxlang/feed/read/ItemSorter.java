@@ -0,0 +1,173 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * Applies the {@code sortBy} ordering and the {@code maxItems} limit to a stream of parsed feed items.
+ * <p>
+ * Supported sort specifications are {@code pubdate} and {@code updated}, optionally followed by {@code asc} or {@code desc}
+ * (descending is the default), and {@code none} which keeps the source order.
+ * <ul>
+ * <li>{@code none} stays fully lazy, so a {@code maxItems} limit stops pulling items from the source as soon as it is reached.</li>
+ * <li>The sorted orders precompute one epoch-millis key per item and compare primitives, instead of comparing the items
+ * (and their {@code Optional<ZonedDateTime>} dates) on every comparison. When a limit is given only the top {@code maxItems}
+ * entries are retained while the source is drained.</li>
+ * </ul>
+ * Items without the requested date fall back to the other date field, and items with neither are always placed last.
+ * Items with equal keys keep their source order.
+ */
+public final class ItemSorter {
+
+	/**
+	 * The default sort specification, matching the natural (newest first) order of the reader items.
+	 */
+	public static final String DEFAULT_SORT = "pubdate desc";
+
+	/**
+	 * The sortable fields
+	 */
+	private enum Field {
+		NONE,
+		PUBDATE,
+		UPDATED
+	}
+
+	/**
+	 * A parsed item paired with its precomputed sort key and source position.
+	 */
+	private record Keyed<I> ( long key, long seq, I item ) {
+	}
+
+	private ItemSorter() {
+	}
+
+	/**
+	 * Applies the sort specification and limit to the given stream.
+	 *
+	 * @param items    The source stream of parsed items
+	 * @param sortBy   The sort specification: {@code pubdate|updated [asc|desc]} or {@code none}
+	 * @param maxItems The maximum number of items to return, 0 means no limit
+	 *
+	 * @return The ordered and limited stream. Closing it closes the source stream.
+	 */
+	public static <I extends Item> Stream<I> apply( Stream<I> items, String sortBy, long maxItems ) {
+		String		spec		= sortBy == null || sortBy.isBlank() ? DEFAULT_SORT : sortBy.trim().toLowerCase( Locale.ROOT );
+		String[]	parts		= spec.split( "\\s+" );
+		Field		field		= parseField( parts[ 0 ], sortBy );
+		boolean		descending	= true;
+
+		if ( parts.length > 2 ) {
+			throw new BoxValidationException( "Invalid sortBy value [" + sortBy + "]. Expected 'pubdate|updated [asc|desc]' or 'none'." );
+		}
+		if ( parts.length == 2 ) {
+			if ( field == Field.NONE ) {
+				throw new BoxValidationException( "The sortBy value 'none' does not take a direction." );
+			}
+			descending = switch ( parts[ 1 ] ) {
+				case "desc" -> true;
+				case "asc" -> false;
+				default -> throw new BoxValidationException( "Invalid sort direction [" + parts[ 1 ] + "]. Must be 'asc' or 'desc'." );
+			};
+		}
+
+		if ( field == Field.NONE ) {
+			return maxItems > 0 ? items.limit( maxItems ) : items;
+		}
+
+		return sort( items, field, descending, maxItems ).onClose( items::close );
+	}
+
+	/**
+	 * Whether a sort specification keeps the source order, so the pipeline stays lazy.
+	 *
+	 * @param sortBy The sort specification
+	 *
+	 * @return True for {@code none}
+	 */
+	public static boolean isUnsorted( String sortBy ) {
+		return sortBy != null && "none".equals( sortBy.trim().toLowerCase( Locale.ROOT ) );
+	}
+
+	/**
+	 * Drains the stream into keyed entries and returns them ordered.
+	 */
+	private static <I extends Item> Stream<I> sort( Stream<I> items, Field field, boolean descending, long maxItems ) {
+		// Missing dates sort last in both directions
+		long					missing		= descending ? Long.MIN_VALUE : Long.MAX_VALUE;
+		Comparator<Keyed<I>>	byKey		= descending
+		    ? ( a, b ) -> Long.compare( b.key(), a.key() )
+		    : ( a, b ) -> Long.compare( a.key(), b.key() );
+		Comparator<Keyed<I>>	comparator	= byKey.thenComparingLong( Keyed::seq );
+		long[]					seq			= { 0 };
+
+		if ( maxItems > 0 && maxItems < Integer.MAX_VALUE ) {
+			// Bounded top-k: the head of the queue is the worst retained entry
+			int						limit	= ( int ) maxItems;
+			PriorityQueue<Keyed<I>>	top		= new PriorityQueue<>( Math.min( limit, 1024 ) + 1, comparator.reversed() );
+			items.forEach( item -> {
+				top.offer( new Keyed<>( keyOf( item, field, missing ), seq[ 0 ]++, item ) );
+				if ( top.size() > limit ) {
+					top.poll();
+				}
+			} );
+			List<Keyed<I>> result = new ArrayList<>( top );
+			result.sort( comparator );
+			return result.stream().map( Keyed::item );
+		}
+
+		List<Keyed<I>> result = new ArrayList<>();
+		items.forEach( item -> result.add( new Keyed<>( keyOf( item, field, missing ), seq[ 0 ]++, item ) ) );
+		result.sort( comparator );
+		return result.stream().map( Keyed::item );
+	}
+
+	/**
+	 * Computes the epoch millis sort key of an item for the given field.
+	 */
+	private static long keyOf( Item item, Field field, long missing ) {
+		Optional<ZonedDateTime>	primary		= field == Field.PUBDATE ? item.getPubDateZonedDateTime() : item.getUpdatedZonedDateTime();
+		Optional<ZonedDateTime>	date		= primary.isPresent()
+		    ? primary
+		    : ( field == Field.PUBDATE ? item.getUpdatedZonedDateTime() : item.getPubDateZonedDateTime() );
+		return date.map( d -> d.toInstant().toEpochMilli() ).orElse( missing );
+	}
+
+	/**
+	 * Parses the field part of a sort specification.
+	 */
+	private static Field parseField( String value, String sortBy ) {
+		return switch ( value ) {
+			case "none" -> Field.NONE;
+			case "pubdate" -> Field.PUBDATE;
+			case "updated" -> Field.UPDATED;
+			default -> throw new BoxValidationException(
+			    "Invalid sortBy value [" + sortBy + "]. Expected 'pubdate', 'updated' (optionally followed by 'asc' or 'desc') or 'none'." );
+		};
+	}
+
+}
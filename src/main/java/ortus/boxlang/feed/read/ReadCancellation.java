@@ -0,0 +1,185 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * The cancellation of an asynchronous feed read.
+ * <p>
+ * The read runs between {@link #enter()} and {@link #exit()} on its worker thread, which makes it the current cancellation of
+ * that thread: {@link FeedFetcher#open} registers the documents it opens with it, and {@link #guard(Stream)} checks it before
+ * each parsed item. {@link #cancel()}, called when the future of the read is cancelled, interrupts the worker (aborting a
+ * request waiting for its response), closes the open documents (aborting their download and their parse) and makes the next
+ * item check fail.
+ */
+public final class ReadCancellation {
+
+	private static final ThreadLocal<ReadCancellation>	CURRENT		= new ThreadLocal<>();
+
+	private final Set<Closeable>						resources	= ConcurrentHashMap.newKeySet();
+	private volatile boolean							cancelled	= false;
+	private Thread										worker;
+
+	private ReadCancellation() {
+	}
+
+	/**
+	 * @return A new cancellation, not cancelled
+	 */
+	public static ReadCancellation create() {
+		return new ReadCancellation();
+	}
+
+	/**
+	 * @return The cancellation of the read running on the current thread, or null
+	 */
+	public static ReadCancellation current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Cancel the read when its future is cancelled.
+	 *
+	 * @param future The future of the read
+	 *
+	 * @return The future
+	 */
+	public <T extends CompletableFuture<?>> T attach( T future ) {
+		future.whenComplete( ( result, error ) -> {
+			if ( future.isCancelled() ) {
+				cancel();
+			}
+		} );
+		return future;
+	}
+
+	/**
+	 * Start the read on the current thread. A read cancelled before it started is not bound to the thread; call it within the
+	 * {@code try} whose {@code finally} calls {@link #exit()}, which unbinds a read cancelled while it was starting.
+	 *
+	 * @throws CancellationException If the read was cancelled before it started
+	 */
+	public void enter() {
+		check();
+		synchronized ( this ) {
+			worker = Thread.currentThread();
+		}
+		CURRENT.set( this );
+		// Cancelled before the worker was known, so not interrupted
+		check();
+	}
+
+	/**
+	 * End the read on the current thread, which may then run other tasks: it is no longer interrupted by a cancellation.
+	 */
+	public void exit() {
+		synchronized ( this ) {
+			worker = null;
+			// Clear an interrupt of this read, so it does not leak into the next task of a pooled thread
+			Thread.interrupted();
+		}
+		CURRENT.remove();
+	}
+
+	/**
+	 * Cancel the read: interrupt its worker and close the documents it opened. Calling it again does nothing.
+	 */
+	public void cancel() {
+		synchronized ( this ) {
+			if ( cancelled ) {
+				return;
+			}
+			cancelled = true;
+			if ( worker != null ) {
+				worker.interrupt();
+			}
+		}
+		resources.forEach( ReadCancellation::closeQuietly );
+	}
+
+	/**
+	 * @return Whether the read was cancelled
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * @throws CancellationException If the read was cancelled
+	 */
+	public void check() {
+		if ( cancelled ) {
+			throw new CancellationException( "The feed read was cancelled" );
+		}
+	}
+
+	/**
+	 * Close a document of the read when the read is cancelled, at once if it already is.
+	 *
+	 * @param resource The opened document
+	 *
+	 * @return The document
+	 */
+	public <T extends Closeable> T register( T resource ) {
+		resources.add( resource );
+		if ( cancelled ) {
+			closeQuietly( resource );
+			check();
+		}
+		return resource;
+	}
+
+	/**
+	 * Stop a stream of parsed items at the next item once the read of the current thread is cancelled.
+	 *
+	 * @param items The item stream
+	 *
+	 * @return The guarded stream, or the same stream when no cancellable read runs on the current thread
+	 */
+	public static <I> Stream<I> guard( Stream<I> items ) {
+		ReadCancellation cancellation = current();
+		return cancellation == null ? items : guard( items, cancellation );
+	}
+
+	/**
+	 * Stop a stream of parsed items at the next item once a read is cancelled; the cancellation also closes the stream, which
+	 * closes the documents it reads.
+	 *
+	 * @param items        The item stream
+	 * @param cancellation The cancellation of the read
+	 *
+	 * @return The guarded stream
+	 */
+	public static <I> Stream<I> guard( Stream<I> items, ReadCancellation cancellation ) {
+		cancellation.register( items::close );
+		return items.peek( item -> cancellation.check() );
+	}
+
+	private static void closeQuietly( Closeable resource ) {
+		try {
+			resource.close();
+		} catch ( IOException | RuntimeException e ) {
+			// Already closed or aborted
+		}
+	}
+
+}
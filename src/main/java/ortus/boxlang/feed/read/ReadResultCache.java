@@ -0,0 +1,207 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A bounded LRU cache of {@code readFeed} results, keyed by a fingerprint of the read arguments, with a stale-while-revalidate
+ * grace window.
+ * <p>
+ * An entry is fresh for {@code cacheTimeout} seconds, then stale for {@code staleWhileRevalidate} more seconds: a stale entry is
+ * still returned, and the caller starts a background refresh. {@link #startRefresh(String)} lets a single refresh run per key,
+ * so concurrent callers that find the same stale entry do not fetch the feed again. Past the grace window the entry is gone and
+ * the read waits for the upstream, as without a cache.
+ */
+public final class ReadResultCache {
+
+	/**
+	 * The default maximum number of cached results
+	 */
+	public static final int						DEFAULT_MAX_ENTRIES	= 256;
+
+	private static final ReadResultCache		SHARED				= new ReadResultCache( DEFAULT_MAX_ENTRIES, Clock.systemUTC() );
+
+	private final LinkedHashMap<String, Entry>	entries;
+	private final Set<String>					refreshing			= ConcurrentHashMap.newKeySet();
+	private volatile int						maxEntries;
+	private volatile Clock						clock;
+
+	/**
+	 * A cached read result.
+	 *
+	 * @param result     The readFeed result
+	 * @param storedAt   When it was stored, in epoch millis
+	 * @param freshUntil When it becomes stale, in epoch millis
+	 * @param staleUntil When it expires, in epoch millis
+	 */
+	public record Entry( Object result, long storedAt, long freshUntil, long staleUntil ) {
+
+		/**
+		 * @param now The current time in epoch millis
+		 *
+		 * @return Whether the entry is still fresh
+		 */
+		public boolean isFresh( long now ) {
+			return now < freshUntil;
+		}
+
+		/**
+		 * @return When the entry was stored, as an ISO-8601 string
+		 */
+		public String storedAtIso() {
+			return Instant.ofEpochMilli( storedAt ).toString();
+		}
+	}
+
+	/**
+	 * Create a cache.
+	 *
+	 * @param maxEntries The maximum number of cached results
+	 * @param clock      The time source
+	 */
+	public ReadResultCache( int maxEntries, Clock clock ) {
+		this.maxEntries	= maxEntries;
+		this.clock		= clock;
+		this.entries	= new LinkedHashMap<>( 16, 0.75f, true );
+	}
+
+	/**
+	 * @return The module-wide cache instance
+	 */
+	public static ReadResultCache shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Get a cached result, fresh or within its grace window.
+	 *
+	 * @param key The fingerprint of the read arguments
+	 *
+	 * @return The entry, or null when there is none or it has expired
+	 */
+	public Entry get( String key ) {
+		long now = now();
+		synchronized ( entries ) {
+			Entry entry = entries.get( key );
+			if ( entry != null && now >= entry.staleUntil() ) {
+				entries.remove( key );
+				return null;
+			}
+			return entry;
+		}
+	}
+
+	/**
+	 * Cache a read result.
+	 *
+	 * @param key                  The fingerprint of the read arguments
+	 * @param result               The readFeed result
+	 * @param cacheTimeout         How long the result is fresh, in seconds
+	 * @param staleWhileRevalidate How long it is served stale afterwards while it is refreshed, in seconds
+	 *
+	 * @return The cached entry
+	 */
+	public Entry put( String key, Object result, long cacheTimeout, long staleWhileRevalidate ) {
+		long	now			= now();
+		long	freshUntil	= now + Math.max( 0, cacheTimeout ) * 1000;
+		Entry	entry		= new Entry( result, now, freshUntil, freshUntil + Math.max( 0, staleWhileRevalidate ) * 1000 );
+		synchronized ( entries ) {
+			entries.put( key, entry );
+			while ( entries.size() > maxEntries ) {
+				entries.remove( entries.keySet().iterator().next() );
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Claim the refresh of a stale entry.
+	 *
+	 * @param key The fingerprint of the read arguments
+	 *
+	 * @return Whether the caller must refresh the entry; false when a refresh is already running
+	 */
+	public boolean startRefresh( String key ) {
+		return refreshing.add( key );
+	}
+
+	/**
+	 * Release the refresh of an entry, whether it succeeded or not.
+	 *
+	 * @param key The fingerprint of the read arguments
+	 */
+	public void finishRefresh( String key ) {
+		refreshing.remove( key );
+	}
+
+	/**
+	 * @param key The fingerprint of the read arguments
+	 *
+	 * @return Whether a refresh of the entry is running
+	 */
+	public boolean isRefreshing( String key ) {
+		return refreshing.contains( key );
+	}
+
+	/**
+	 * @return The current time of the cache, in epoch millis
+	 */
+	public long now() {
+		return clock.millis();
+	}
+
+	/**
+	 * @param clock The time source
+	 *
+	 * @return This cache
+	 */
+	public ReadResultCache setClock( Clock clock ) {
+		this.clock = clock;
+		return this;
+	}
+
+	/**
+	 * Change the maximum number of cached results.
+	 *
+	 * @param maxEntries The new maximum
+	 */
+	public void setMaxEntries( int maxEntries ) {
+		this.maxEntries = Math.max( 1, maxEntries );
+	}
+
+	/**
+	 * @return The number of cached results
+	 */
+	public int size() {
+		synchronized ( entries ) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Remove every cached result.
+	 */
+	public void clear() {
+		synchronized ( entries ) {
+			entries.clear();
+		}
+	}
+
+}
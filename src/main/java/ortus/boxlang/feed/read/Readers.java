@@ -0,0 +1,89 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.apptasticsoftware.rssreader.RssReader;
+import com.apptasticsoftware.rssreader.module.itunes.ItunesRssReader;
+import com.apptasticsoftware.rssreader.module.mediarss.MediaRssReader;
+
+/**
+ * The shared feed readers of the module, created on first use.
+ * <p>
+ * Each reader lives in its own holder class, which the JVM only initializes when the reader is first requested: a module that
+ * never reads a Media RSS feed never loads or builds the Media RSS reader, and no locking is needed.
+ */
+public final class Readers {
+
+	private static final List<String> CREATED = new ArrayList<>();
+
+	private Readers() {
+	}
+
+	private static final class Plain {
+
+		static final RssReader INSTANCE = created( "rss", new RssReader() );
+	}
+
+	private static final class Itunes {
+
+		static final ItunesRssReader INSTANCE = created( "itunes", new ItunesRssReader() );
+	}
+
+	private static final class MediaRss {
+
+		static final MediaRssReader INSTANCE = created( "mediaRss", new MediaRssReader() );
+	}
+
+	/**
+	 * @return The plain RSS/Atom reader
+	 */
+	public static RssReader rss() {
+		return Plain.INSTANCE;
+	}
+
+	/**
+	 * @return The reader with the iTunes podcast extensions
+	 */
+	public static ItunesRssReader itunes() {
+		return Itunes.INSTANCE;
+	}
+
+	/**
+	 * @return The reader with the Media RSS extensions
+	 */
+	public static MediaRssReader mediaRss() {
+		return MediaRss.INSTANCE;
+	}
+
+	/**
+	 * @return The names of the readers created so far: {@code rss}, {@code itunes}, {@code mediaRss}
+	 */
+	public static List<String> created() {
+		synchronized ( CREATED ) {
+			return List.copyOf( CREATED );
+		}
+	}
+
+	private static <R> R created( String name, R reader ) {
+		synchronized ( CREATED ) {
+			CREATED.add( name );
+		}
+		return reader;
+	}
+
+}
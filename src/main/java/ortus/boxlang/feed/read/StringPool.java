@@ -0,0 +1,145 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * Deduplicates the values that repeat on every item of a feed: channel titles, authors, categories, enclosure types.
+ * <p>
+ * The parser allocates a new String for each occurrence. Passing the values through a pool makes the repeated ones share a
+ * single instance, which matters when the results are held on to, in a cache or a background snapshot. Three modes:
+ * <ul>
+ * <li>{@code none} - values are returned as they are</li>
+ * <li>{@code read} - a table private to one read, dropped with it</li>
+ * <li>{@code global} - a table shared by all reads, bounded to {@link #GLOBAL_CAPACITY} values; once full, new values are
+ * returned as they are while the pooled ones keep being shared</li>
+ * </ul>
+ * Only short values are pooled ({@link #MAX_LENGTH} characters): long values rarely repeat.
+ */
+public final class StringPool {
+
+	// Dedup modes
+	public static final String			NONE			= "none";
+	public static final String			READ			= "read";
+	public static final String			GLOBAL			= "global";
+
+	/**
+	 * The maximum number of values in the global pool
+	 */
+	public static final int				GLOBAL_CAPACITY	= 10_000;
+
+	/**
+	 * The maximum length of a pooled value
+	 */
+	public static final int				MAX_LENGTH		= 256;
+
+	private static final StringPool		NO_OP			= new StringPool( null, 0 );
+	private static final StringPool		SHARED			= new StringPool( new ConcurrentHashMap<>(), GLOBAL_CAPACITY );
+
+	private final Map<String, String>	table;
+	private final int					capacity;
+
+	private StringPool( Map<String, String> table, int capacity ) {
+		this.table		= table;
+		this.capacity	= capacity;
+	}
+
+	/**
+	 * Get the pool of a dedup mode.
+	 *
+	 * @param mode {@code none}, {@code read} or {@code global}
+	 *
+	 * @return The pool: a no-op pool, a new pool for the read, or the global pool
+	 */
+	public static StringPool forMode( String mode ) {
+		String normalized = mode == null || mode.isBlank() ? NONE : mode.trim().toLowerCase( Locale.ROOT );
+		return switch ( normalized ) {
+			case NONE -> NO_OP;
+			case READ -> new StringPool( new HashMap<>(), Integer.MAX_VALUE );
+			case GLOBAL -> SHARED;
+			default -> throw new BoxValidationException( "Invalid dedupe value [" + mode + "]. Expected 'none', 'read' or 'global'." );
+		};
+	}
+
+	/**
+	 * @return The global pool
+	 */
+	public static StringPool global() {
+		return SHARED;
+	}
+
+	/**
+	 * Get the shared instance of a value.
+	 *
+	 * @param value The value, may be null
+	 *
+	 * @return The pooled instance, or the value itself when it is not pooled
+	 */
+	public String intern( String value ) {
+		if ( table == null || value == null || value.length() > MAX_LENGTH ) {
+			return value;
+		}
+		String pooled = table.get( value );
+		if ( pooled != null ) {
+			return pooled;
+		}
+		if ( table.size() >= capacity ) {
+			return value;
+		}
+		pooled = table.putIfAbsent( value, value );
+		return pooled == null ? value : pooled;
+	}
+
+	/**
+	 * Get the shared instances of a list of values.
+	 *
+	 * @param values The values, may be null
+	 *
+	 * @return A new list with the pooled instances, or the list itself when nothing is pooled
+	 */
+	public List<String> internAll( List<String> values ) {
+		if ( table == null || values == null ) {
+			return values;
+		}
+		List<String> pooled = new ArrayList<>( values.size() );
+		for ( String value : values ) {
+			pooled.add( intern( value ) );
+		}
+		return pooled;
+	}
+
+	/**
+	 * @return The number of pooled values
+	 */
+	public int size() {
+		return table == null ? 0 : table.size();
+	}
+
+	/**
+	 * @return Whether values are pooled at all
+	 */
+	public boolean isEnabled() {
+		return table != null;
+	}
+
+}
@@ -0,0 +1,119 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.read;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.apptasticsoftware.rssreader.AbstractRssReader;
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.feed.util.ModuleMetrics;
+
+/**
+ * Parses a small bundled document of each feed format, so class loading and the JIT warm-up of the XML parser stack happen
+ * before the first real request.
+ * <p>
+ * The documents are kept in this class: the module jar ships no resources. Each one goes through the shared reader of its format
+ * and the default sort, which is the path a first {@code rss()} call takes.
+ */
+public final class Warmup {
+
+	private static final String	RSS_2		= """
+	    <?xml version="1.0" encoding="UTF-8"?>
+	    <rss version="2.0"><channel><title>Warm-up</title><link>https://example.com/</link><description>Warm-up</description>
+	    <item><title>One</title><link>https://example.com/1</link><guid>https://example.com/1</guid>
+	    <pubDate>Sat, 01 Jun 2024 12:00:00 GMT</pubDate><category>BoxLang</category><author>a@example.com (A)</author>
+	    <enclosure url="https://example.com/1.mp3" type="audio/mpeg" length="1024" /></item>
+	    <item><title>Two</title><link>https://example.com/2</link><pubDate>Sat, 01 Jun 2024 11:00:00 GMT</pubDate></item>
+	    </channel></rss>
+	    """;
+
+	private static final String	ATOM		= """
+	    <?xml version="1.0" encoding="UTF-8"?>
+	    <feed xmlns="http://www.w3.org/2005/Atom"><title>Warm-up</title><id>urn:warmup</id><updated>2024-06-01T12:00:00Z</updated>
+	    <link href="https://example.com/" />
+	    <entry><title>One</title><id>urn:warmup:1</id><link href="https://example.com/1" /><updated>2024-06-01T12:00:00Z</updated>
+	    <published>2024-06-01T12:00:00Z</published><author><name>A</name></author><category term="BoxLang" />
+	    <summary>First</summary><content type="html">&lt;p&gt;First&lt;/p&gt;</content></entry>
+	    </feed>
+	    """;
+
+	private static final String	RDF			= """
+	    <?xml version="1.0" encoding="UTF-8"?>
+	    <rdf:RDF xmlns:rdf="http://www.w3.org/1999/02/22-rdf-syntax-ns#" xmlns="http://purl.org/rss/1.0/"
+	    xmlns:dc="http://purl.org/dc/elements/1.1/">
+	    <channel rdf:about="https://example.com/"><title>Warm-up</title><link>https://example.com/</link><description>Warm-up</description></channel>
+	    <item rdf:about="https://example.com/1"><title>One</title><link>https://example.com/1</link><dc:date>2024-06-01T12:00:00Z</dc:date></item>
+	    </rdf:RDF>
+	    """;
+
+	private static final String	ITUNES		= """
+	    <?xml version="1.0" encoding="UTF-8"?>
+	    <rss version="2.0" xmlns:itunes="http://www.itunes.com/dtds/podcast-1.0.dtd"><channel><title>Warm-up</title>
+	    <link>https://example.com/</link><description>Warm-up</description><itunes:author>A</itunes:author>
+	    <itunes:image href="https://example.com/cover.jpg" /><itunes:category text="Technology" />
+	    <item><title>Episode 1</title><guid>urn:warmup:1</guid><pubDate>Sat, 01 Jun 2024 12:00:00 GMT</pubDate>
+	    <enclosure url="https://example.com/1.mp3" type="audio/mpeg" length="1024" /><itunes:duration>00:10:00</itunes:duration>
+	    <itunes:episode>1</itunes:episode><itunes:explicit>false</itunes:explicit></item>
+	    </channel></rss>
+	    """;
+
+	private static final String	MEDIA_RSS	= """
+	    <?xml version="1.0" encoding="UTF-8"?>
+	    <rss version="2.0" xmlns:media="http://search.yahoo.com/mrss/"><channel><title>Warm-up</title>
+	    <link>https://example.com/</link><description>Warm-up</description>
+	    <item><title>Video 1</title><link>https://example.com/1</link><pubDate>Sat, 01 Jun 2024 12:00:00 GMT</pubDate>
+	    <media:thumbnail url="https://example.com/1.jpg" width="120" height="90" />
+	    <media:content url="https://example.com/1.mp4" type="video/mp4" /></item>
+	    </channel></rss>
+	    """;
+
+	private Warmup() {
+	}
+
+	/**
+	 * Parse the bundled document of each format and record the timings in {@link ModuleMetrics}.
+	 *
+	 * @return The parse time of each format in milliseconds: rss, atom, rdf, itunes, mediaRss
+	 */
+	public static Map<String, Double> run() {
+		ModuleMetrics.warmupStarted();
+		try {
+			long				start	= System.nanoTime();
+			Map<String, Double>	formats	= new LinkedHashMap<>();
+			formats.put( "rss", parse( Readers.rss(), RSS_2 ) );
+			formats.put( "atom", parse( Readers.rss(), ATOM ) );
+			formats.put( "rdf", parse( Readers.rss(), RDF ) );
+			formats.put( "itunes", parse( Readers.itunes(), ITUNES ) );
+			formats.put( "mediaRss", parse( Readers.mediaRss(), MEDIA_RSS ) );
+			ModuleMetrics.warmupDone( formats, ( System.nanoTime() - start ) / 1_000_000d );
+			return formats;
+		} catch ( RuntimeException e ) {
+			ModuleMetrics.warmupFailed( e );
+			throw e;
+		}
+	}
+
+	private static <I extends Item> double parse( AbstractRssReader<?, I> reader, String document ) {
+		long start = System.nanoTime();
+		ItemSorter.apply( reader.read( new ByteArrayInputStream( document.getBytes( StandardCharsets.UTF_8 ) ) ), ItemSorter.DEFAULT_SORT, 0 )
+		    .toList();
+		return ( System.nanoTime() - start ) / 1_000_000d;
+	}
+
+}
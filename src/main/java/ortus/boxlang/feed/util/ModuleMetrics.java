@@ -0,0 +1,150 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.util;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ortus.boxlang.feed.read.Readers;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+
+/**
+ * Startup and first-call timings of the module, for instrumentation.
+ * <p>
+ * Records how long the module activation ({@code onLoad()}) took, the optional warm-up (per feed format), and the latency of
+ * the first call of each operation, which is where class loading and JIT warm-up show up after a deploy. All times are in
+ * milliseconds.
+ */
+public final class ModuleMetrics {
+
+	// Warm-up states
+	public static final String					WARMUP_OFF		= "off";
+	public static final String					WARMUP_RUNNING	= "running";
+	public static final String					WARMUP_DONE		= "done";
+	public static final String					WARMUP_FAILED	= "failed";
+
+	private static final Map<String, Double>	FIRST_CALLS		= new ConcurrentHashMap<>();
+	private static volatile long				loadingAt		= 0;
+	private static volatile double				loadMillis		= -1;
+	private static volatile String				warmupStatus	= WARMUP_OFF;
+	private static volatile double				warmupMillis	= -1;
+	private static volatile Map<String, Double>	warmupFormats	= Map.of();
+	private static volatile String				warmupError		= "";
+
+	private ModuleMetrics() {
+	}
+
+	/**
+	 * @return A start time to pass to {@link #firstCall(String, long, Object)}
+	 */
+	public static long start() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Mark the start of the module activation.
+	 */
+	public static void loading() {
+		loadingAt = System.nanoTime();
+	}
+
+	/**
+	 * Mark the end of the module activation.
+	 */
+	public static void loaded() {
+		if ( loadingAt > 0 ) {
+			loadMillis = millisSince( loadingAt );
+		}
+	}
+
+	/**
+	 * Mark the start of the warm-up.
+	 */
+	public static void warmupStarted() {
+		warmupStatus = WARMUP_RUNNING;
+	}
+
+	/**
+	 * Record a completed warm-up.
+	 *
+	 * @param formats       The parse time of each format
+	 * @param elapsedMillis The total warm-up time
+	 */
+	public static void warmupDone( Map<String, Double> formats, double elapsedMillis ) {
+		warmupFormats	= Collections.unmodifiableMap( new LinkedHashMap<>( formats ) );
+		warmupMillis	= elapsedMillis;
+		warmupStatus	= WARMUP_DONE;
+	}
+
+	/**
+	 * Record a failed warm-up. The module works regardless; the first calls are just slower.
+	 *
+	 * @param error The failure
+	 */
+	public static void warmupFailed( Throwable error ) {
+		warmupError		= String.valueOf( error.getMessage() );
+		warmupStatus	= WARMUP_FAILED;
+	}
+
+	/**
+	 * Record the latency of the first call of an operation; later calls are ignored.
+	 *
+	 * @param operation  The operation, e.g. {@code rss}
+	 * @param startNanos The start time, from {@link #start()}
+	 * @param result     The result of the call
+	 *
+	 * @return The result, so a call can be wrapped
+	 */
+	public static <T> T firstCall( String operation, long startNanos, T result ) {
+		if ( !FIRST_CALLS.containsKey( operation ) ) {
+			FIRST_CALLS.putIfAbsent( operation, millisSince( startNanos ) );
+		}
+		return result;
+	}
+
+	/**
+	 * The timings recorded so far.
+	 *
+	 * @return Struct with loadMs (-1 until loaded), warmup (status, elapsedMs, formats, error), firstCallMs (per operation)
+	 *         and readers (the readers created so far)
+	 */
+	public static IStruct snapshot() {
+		IStruct formats = new Struct( Struct.TYPES.LINKED );
+		warmupFormats.forEach( formats::put );
+		IStruct firstCalls = new Struct( Struct.TYPES.LINKED );
+		FIRST_CALLS.forEach( firstCalls::put );
+
+		return Struct.linkedOf(
+		    "loadMs", loadMillis,
+		    "warmup", Struct.linkedOf(
+		        "status", warmupStatus,
+		        "elapsedMs", warmupMillis,
+		        "formats", formats,
+		        "error", warmupError
+		    ),
+		    "firstCallMs", firstCalls,
+		    "readers", Array.fromList( Readers.created() )
+		);
+	}
+
+	private static double millisSince( long startNanos ) {
+		return ( System.nanoTime() - startNanos ) / 1_000_000d;
+	}
+
+}
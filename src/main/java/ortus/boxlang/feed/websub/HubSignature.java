@@ -0,0 +1,110 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.websub;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * The {@code X-Hub-Signature} of a WebSub content distribution: {@code method=signature}, the hex HMAC of the raw request
+ * body keyed by the secret given to the hub on subscription.
+ */
+public final class HubSignature {
+
+	/**
+	 * The request header carrying the signature
+	 */
+	public static final String					HEADER		= "X-Hub-Signature";
+
+	/**
+	 * The method used to sign, by the hubs that let the subscriber choose
+	 */
+	public static final String					DEFAULT		= "sha256";
+
+	private static final Map<String, String>	ALGORITHMS	= Map.of(
+	    "sha1", "HmacSHA1",
+	    "sha256", "HmacSHA256",
+	    "sha384", "HmacSHA384",
+	    "sha512", "HmacSHA512"
+	);
+
+	private HubSignature() {
+	}
+
+	/**
+	 * Sign a body.
+	 *
+	 * @param secret The subscription secret
+	 * @param body   The raw request body
+	 * @param method The method: sha1, sha256, sha384 or sha512
+	 *
+	 * @return The header value, e.g. {@code sha256=2c26b4...}
+	 */
+	public static String sign( String secret, byte[] body, String method ) {
+		String algorithm = ALGORITHMS.get( method.toLowerCase( Locale.ROOT ) );
+		if ( algorithm == null ) {
+			throw new IllegalArgumentException( "Unsupported signature method [" + method + "]" );
+		}
+		return method.toLowerCase( Locale.ROOT ) + "=" + HexFormat.of().formatHex( hmac( algorithm, secret, body ) );
+	}
+
+	/**
+	 * Check the signature of a body, in constant time.
+	 *
+	 * @param secret The subscription secret
+	 * @param body   The raw request body
+	 * @param header The {@code X-Hub-Signature} header value, may be null
+	 *
+	 * @return Whether the header is a valid signature of the body; false for a missing, malformed or unsupported signature
+	 */
+	public static boolean verify( String secret, byte[] body, String header ) {
+		if ( header == null ) {
+			return false;
+		}
+		int separator = header.indexOf( '=' );
+		if ( separator < 1 ) {
+			return false;
+		}
+		String algorithm = ALGORITHMS.get( header.substring( 0, separator ).trim().toLowerCase( Locale.ROOT ) );
+		if ( algorithm == null ) {
+			return false;
+		}
+		byte[] expected;
+		try {
+			expected = HexFormat.of().parseHex( header.substring( separator + 1 ).trim() );
+		} catch ( IllegalArgumentException e ) {
+			return false;
+		}
+		return MessageDigest.isEqual( expected, hmac( algorithm, secret, body ) );
+	}
+
+	private static byte[] hmac( String algorithm, String secret, byte[] body ) {
+		try {
+			Mac mac = Mac.getInstance( algorithm );
+			mac.init( new SecretKeySpec( secret.getBytes( StandardCharsets.UTF_8 ), algorithm ) );
+			return mac.doFinal( body );
+		} catch ( GeneralSecurityException e ) {
+			throw new IllegalStateException( "Unable to compute the " + algorithm + " signature", e );
+		}
+	}
+
+}
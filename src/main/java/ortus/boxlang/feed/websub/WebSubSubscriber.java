@@ -0,0 +1,636 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.websub;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.xml.stream.XMLStreamException;
+
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.feed.read.FeedFetcher;
+import ortus.boxlang.feed.read.FeedLinks;
+import ortus.boxlang.feed.read.ItemIndex;
+import ortus.boxlang.feed.read.Readers;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
+
+/**
+ * The WebSub (formerly PubSubHubbub) subscriptions of the module: the hub pushes new items to a callback URL of the
+ * application, instead of the application polling the feed.
+ * <p>
+ * {@link #subscribe} discovers the hub and the topic of a feed from its {@code rel="hub"} and {@code rel="self"} links and
+ * asks the hub for a subscription, with a secret generated for it. The hub then verifies the intent with a GET on the callback,
+ * answered by {@link #verify(IStruct)}, and signs each content distribution with the secret: {@link #deliver} checks the
+ * signature and parses the pushed document with the plain reader.
+ * <p>
+ * Leases are renewed before they expire, by a background check started with the first subscription. A topic with no active
+ * subscription, or from which nothing was received for {@code fallbackPollSeconds}, is reported as due for a poll by
+ * {@link #pollDue(String)}, so polling remains as a slow fallback only.
+ * <p>
+ * The subscriptions are kept in memory: they do not survive a restart, and each server of a cluster has its own.
+ */
+public final class WebSubSubscriber {
+
+	// Subscription states
+	public static final String					PENDING				= "pending";
+	public static final String					ACTIVE				= "active";
+	public static final String					EXPIRED				= "expired";
+	public static final String					DENIED				= "denied";
+	public static final String					UNSUBSCRIBING		= "unsubscribing";
+
+	/**
+	 * The callback URL parameter identifying the subscription
+	 */
+	public static final String					ID_PARAM			= "subscription";
+
+	private static final Key					HUB_MODE			= Key.of( "hub.mode" );
+	private static final Key					HUB_TOPIC			= Key.of( "hub.topic" );
+	private static final Key					HUB_CHALLENGE		= Key.of( "hub.challenge" );
+	private static final Key					HUB_LEASE_SECONDS	= Key.of( "hub.lease_seconds" );
+	private static final Key					HUB_REASON			= Key.of( "hub.reason" );
+	private static final Key					SUBSCRIPTION		= Key.of( ID_PARAM );
+
+	private static final HttpClient				CLIENT				= HttpClient.newBuilder()
+	    .followRedirects( HttpClient.Redirect.NORMAL )
+	    .connectTimeout( Duration.ofSeconds( 10 ) )
+	    .build();
+	private static final SecureRandom			RANDOM				= new SecureRandom();
+	private static final WebSubSubscriber		SHARED				= new WebSubSubscriber( Clock.systemUTC() );
+
+	private final Map<String, Subscription>		subscriptions		= new ConcurrentHashMap<>();
+	private volatile Clock						clock;
+	private volatile long						leaseSeconds		= 86_400;
+	private volatile long						renewBeforeSeconds	= 3_600;
+	private volatile long						fallbackPollSeconds	= 3_600;
+	private volatile long						checkSeconds		= 60;
+	private volatile long						timeoutSeconds		= 25;
+	private ScheduledExecutorService			renewals;
+
+	/**
+	 * A subscription to the topic of a feed.
+	 *
+	 * @param id           The identifier, passed to the callback URL
+	 * @param feedUrl      The feed URL the subscription was made for
+	 * @param topic        The topic URL registered at the hub: the self link of the feed, else its URL
+	 * @param hub          The hub URL
+	 * @param callback     The callback URL given to the hub
+	 * @param secret       The secret the hub signs the distributions with
+	 * @param leaseSeconds The lease requested, or granted once verified
+	 * @param index        Whether the pushed items are added to the item index
+	 * @param state        pending, active, expired, denied or unsubscribing
+	 * @param verifiedAt   When the hub last verified the subscription, in epoch millis, 0 if never
+	 * @param expiresAt    When the lease expires, in epoch millis, 0 before the verification
+	 * @param renewalAt    When the last renewal was requested, in epoch millis, 0 if none is pending
+	 * @param lastDelivery When the last distribution was received, in epoch millis, 0 if none
+	 * @param deliveries   The number of distributions accepted
+	 * @param error        The last hub error or denial reason, empty if none
+	 */
+	public record Subscription(
+	    String id,
+	    String feedUrl,
+	    String topic,
+	    String hub,
+	    String callback,
+	    String secret,
+	    long leaseSeconds,
+	    boolean index,
+	    String state,
+	    long verifiedAt,
+	    long expiresAt,
+	    long renewalAt,
+	    long lastDelivery,
+	    long deliveries,
+	    String error ) {
+
+		Subscription withState( String newState, String newError ) {
+			return new Subscription( id, feedUrl, topic, hub, callback, secret, leaseSeconds, index, newState, verifiedAt, expiresAt, renewalAt,
+			    lastDelivery, deliveries, newError );
+		}
+
+		Subscription verified( long lease, long now ) {
+			return new Subscription( id, feedUrl, topic, hub, callback, secret, lease, index, ACTIVE, now, now + lease * 1000, 0, lastDelivery,
+			    deliveries, "" );
+		}
+
+		Subscription renewing( long now ) {
+			return new Subscription( id, feedUrl, topic, hub, callback, secret, leaseSeconds, index, state, verifiedAt, expiresAt, now,
+			    lastDelivery, deliveries, error );
+		}
+
+		Subscription delivered( long now ) {
+			return new Subscription( id, feedUrl, topic, hub, callback, secret, leaseSeconds, index, state, verifiedAt, expiresAt, renewalAt,
+			    now, deliveries + 1, error );
+		}
+
+		/**
+		 * @return The subscription as a struct, without its secret
+		 */
+		public IStruct toStruct() {
+			return Struct.linkedOf(
+			    "id", id,
+			    "feedUrl", feedUrl,
+			    "topic", topic,
+			    "hub", hub,
+			    "callback", callback,
+			    "state", state,
+			    "leaseSeconds", leaseSeconds,
+			    "index", index,
+			    "verifiedAt", format( verifiedAt ),
+			    "expiresAt", format( expiresAt ),
+			    "lastDelivery", format( lastDelivery ),
+			    "deliveries", deliveries,
+			    "error", error
+			);
+		}
+	}
+
+	/**
+	 * The response to a verification of intent.
+	 *
+	 * @param status The HTTP status: 200 with the challenge as body when the request is confirmed, 404 otherwise
+	 * @param body   The response body
+	 */
+	public record Verification( int status, String body ) {
+	}
+
+	/**
+	 * A content distribution.
+	 *
+	 * @param status       The HTTP status to answer: 200 once received, even when the signature is invalid, 404 for an unknown
+	 *                     subscription
+	 * @param accepted     Whether the signature is valid and the items were parsed
+	 * @param subscription The subscription, or null when unknown
+	 * @param items        The pushed items, empty when not accepted
+	 * @param error        Why the distribution was ignored, empty when accepted
+	 */
+	public record Delivery( int status, boolean accepted, Subscription subscription, List<Item> items, String error ) {
+	}
+
+	/**
+	 * The hub and topic of a feed.
+	 *
+	 * @param hub   The hub URL, or null when the feed declares none
+	 * @param topic The self link of the feed, else its URL
+	 */
+	public record Discovery( String hub, String topic ) {
+	}
+
+	/**
+	 * Create a subscriber.
+	 *
+	 * @param clock The time source
+	 */
+	public WebSubSubscriber( Clock clock ) {
+		this.clock = clock;
+	}
+
+	/**
+	 * @return The module-wide subscriber
+	 */
+	public static WebSubSubscriber shared() {
+		return SHARED;
+	}
+
+	/**
+	 * Find the hub and the topic of a feed from its feed-level links.
+	 *
+	 * @param url            The feed URL
+	 * @param userAgent      The User-Agent of the request, or null
+	 * @param timeoutSeconds The request timeout in seconds, 0 for none
+	 *
+	 * @return The discovered hub and topic
+	 */
+	public static Discovery discover( String url, String userAgent, long timeoutSeconds ) {
+		try ( InputStream document = FeedFetcher.open( url, userAgent, timeoutSeconds ) ) {
+			FeedLinks	links	= FeedLinks.scan( document, url );
+			String		self	= links.get( "self" );
+			return new Discovery( links.get( "hub" ), self != null ? self : url );
+		} catch ( IOException | XMLStreamException e ) {
+			throw new BoxIOException( "Unable to discover the WebSub hub of the feed [" + url + "]: " + e.getMessage(), e );
+		}
+	}
+
+	/**
+	 * Subscribe to the topic of a feed. The subscription is pending until the hub verifies it on the callback URL.
+	 *
+	 * @param feedUrl      The feed URL
+	 * @param hub          The hub URL, or empty to discover it from the feed
+	 * @param callback     The public URL of the application endpoint that calls the callback handler
+	 * @param leaseSeconds The lease to request, 0 for the default
+	 * @param index        Whether the pushed items are added to the item index
+	 * @param userAgent    The User-Agent of the discovery request, or null
+	 *
+	 * @return The pending subscription
+	 */
+	public Subscription subscribe( String feedUrl, String hub, String callback, long leaseSeconds, boolean index, String userAgent ) {
+		if ( callback == null || callback.isBlank() ) {
+			throw new BoxValidationException( "A WebSub subscription needs the callback URL of the application" );
+		}
+		String topic = feedUrl;
+		if ( hub == null || hub.isBlank() ) {
+			Discovery discovery = discover( feedUrl, userAgent, timeoutSeconds );
+			if ( discovery.hub() == null ) {
+				throw new BoxValidationException( "The feed [" + feedUrl + "] does not declare a WebSub hub (no rel=\"hub\" link)" );
+			}
+			hub		= discovery.hub();
+			topic	= discovery.topic();
+		}
+
+		// One subscription per topic and callback: subscribing again renews it
+		Subscription	existing		= find( topic );
+		boolean			renewal			= existing != null && existing.callback().startsWith( callback );
+		String			id				= renewal ? existing.id() : UUID.randomUUID().toString();
+		Subscription	subscription	= new Subscription( id, feedUrl, topic, hub, withId( callback, id ), renewal ? existing.secret() : newSecret(),
+		    leaseSeconds > 0 ? leaseSeconds : this.leaseSeconds, index, PENDING, 0, 0, 0, 0, 0, "" );
+
+		// Stored first: the hub may verify the intent before it answers the request
+		subscriptions.put( id, subscription );
+		try {
+			request( subscription, "subscribe" );
+		} catch ( RuntimeException e ) {
+			if ( renewal ) {
+				subscriptions.put( id, existing );
+			} else {
+				subscriptions.remove( id );
+			}
+			throw e;
+		}
+		startRenewals();
+		return subscriptions.getOrDefault( id, subscription );
+	}
+
+	/**
+	 * Unsubscribe from a topic. The subscription is dropped when the hub verifies the request.
+	 *
+	 * @param urlOrId The feed URL, the topic URL or the subscription id
+	 *
+	 * @return The subscription, unsubscribing
+	 */
+	public Subscription unsubscribe( String urlOrId ) {
+		Subscription subscription = find( urlOrId );
+		if ( subscription == null ) {
+			throw new BoxValidationException( "There is no WebSub subscription for [" + urlOrId + "]" );
+		}
+		Subscription unsubscribing = subscription.withState( UNSUBSCRIBING, "" );
+		subscriptions.put( unsubscribing.id(), unsubscribing );
+		request( unsubscribing, "unsubscribe" );
+		return subscriptions.getOrDefault( unsubscribing.id(), unsubscribing );
+	}
+
+	/**
+	 * Answer a verification of intent, or a denial, sent by a hub as a GET on the callback URL.
+	 *
+	 * @param params The query parameters of the request: subscription, hub.mode, hub.topic, hub.challenge, hub.lease_seconds and hub.reason
+	 *
+	 * @return The response to send
+	 */
+	public Verification verify( IStruct params ) {
+		Subscription	subscription	= subscriptions.get( param( params, SUBSCRIPTION ) );
+		String			mode			= param( params, HUB_MODE );
+		String			challenge		= param( params, HUB_CHALLENGE );
+		if ( subscription == null || !subscription.topic().equals( param( params, HUB_TOPIC ) ) ) {
+			return new Verification( 404, "" );
+		}
+		switch ( mode ) {
+			case "subscribe" -> {
+				if ( challenge.isEmpty() || UNSUBSCRIBING.equals( subscription.state() ) ) {
+					return new Verification( 404, "" );
+				}
+				long lease = parseLease( param( params, HUB_LEASE_SECONDS ), subscription.leaseSeconds() );
+				subscriptions.computeIfPresent( subscription.id(), ( id, current ) -> current.verified( lease, clock.millis() ) );
+				return new Verification( 200, challenge );
+			}
+			case "unsubscribe" -> {
+				if ( challenge.isEmpty() || !UNSUBSCRIBING.equals( subscription.state() ) ) {
+					return new Verification( 404, "" );
+				}
+				subscriptions.remove( subscription.id() );
+				return new Verification( 200, challenge );
+			}
+			case "denied" -> {
+				subscriptions.computeIfPresent( subscription.id(), ( id, current ) -> current.withState( DENIED, param( params, HUB_REASON ) ) );
+				return new Verification( 200, "" );
+			}
+			default -> {
+				return new Verification( 404, "" );
+			}
+		}
+	}
+
+	/**
+	 * Receive a content distribution, sent by a hub as a POST on the callback URL. The signature is checked against the raw
+	 * body, which is then parsed with the plain reader; with {@code index}, the items are added to the item index.
+	 *
+	 * @param id        The subscription id, from the callback URL
+	 * @param body      The raw request body, as bytes or a string (then encoded as UTF-8)
+	 * @param signature The {@code X-Hub-Signature} header, may be null
+	 *
+	 * @return The distribution and the response status to send
+	 */
+	public Delivery deliver( String id, Object body, String signature ) {
+		Subscription subscription = id == null ? null : subscriptions.get( id );
+		if ( subscription == null || UNSUBSCRIBING.equals( subscription.state() ) ) {
+			return new Delivery( 404, false, subscription, List.of(), "Unknown subscription [" + id + "]" );
+		}
+		byte[] bytes = body instanceof byte[] raw ? raw : String.valueOf( body == null ? "" : body ).getBytes( StandardCharsets.UTF_8 );
+		// The hub must still get a success: a forged distribution is ignored, not refused
+		if ( !HubSignature.verify( subscription.secret(), bytes, signature ) ) {
+			return new Delivery( 200, false, subscription, List.of(), "Invalid " + HubSignature.HEADER );
+		}
+		List<Item> items;
+		try {
+			items = Readers.rss().read( new ByteArrayInputStream( bytes ) ).collect( Collectors.toList() );
+		} catch ( RuntimeException e ) {
+			return new Delivery( 200, false, subscription, List.of(), "Unable to parse the distribution: " + e.getMessage() );
+		}
+		if ( subscription.index() ) {
+			ItemIndex.shared().addAll( items );
+		}
+		Subscription delivered = subscriptions.computeIfPresent( id, ( key, current ) -> current.delivered( clock.millis() ) );
+		return new Delivery( 200, true, delivered != null ? delivered : subscription, items, "" );
+	}
+
+	/**
+	 * Renew the leases expiring within {@code renewBeforeSeconds}, once per lease. Run periodically once there is a
+	 * subscription; a lease that could not be renewed in time is marked expired.
+	 *
+	 * @return The number of renewals requested
+	 */
+	public int renewDue() {
+		long	now		= clock.millis();
+		long	margin	= renewBeforeSeconds * 1000;
+		int		renewed	= 0;
+		for ( Subscription subscription : subscriptions.values() ) {
+			if ( ACTIVE.equals( subscription.state() ) && now >= subscription.expiresAt() ) {
+				subscriptions.computeIfPresent( subscription.id(), ( id, current ) -> current.withState( EXPIRED, current.error() ) );
+			}
+			boolean	live	= ACTIVE.equals( subscription.state() ) || EXPIRED.equals( subscription.state() );
+			long	renewAt	= subscription.expiresAt() - margin;
+			if ( !live || now < renewAt || subscription.renewalAt() >= renewAt ) {
+				continue;
+			}
+			subscriptions.computeIfPresent( subscription.id(), ( id, current ) -> current.renewing( now ) );
+			try {
+				request( subscription, "subscribe" );
+				renewed++;
+			} catch ( RuntimeException e ) {
+				subscriptions.computeIfPresent( subscription.id(), ( id, current ) -> current.withState( current.state(), e.getMessage() ) );
+			}
+		}
+		return renewed;
+	}
+
+	/**
+	 * Whether a feed should still be polled: it has no active subscription, or nothing was pushed (or verified) for
+	 * {@code fallbackPollSeconds}.
+	 *
+	 * @param urlOrId The feed URL, the topic URL or the subscription id
+	 *
+	 * @return True when the feed should be polled
+	 */
+	public boolean pollDue( String urlOrId ) {
+		Subscription subscription = find( urlOrId );
+		if ( subscription == null || !ACTIVE.equals( subscription.state() ) ) {
+			return true;
+		}
+		long lastHeard = Math.max( subscription.verifiedAt(), subscription.lastDelivery() );
+		return clock.millis() - lastHeard >= fallbackPollSeconds * 1000;
+	}
+
+	/**
+	 * @param urlOrId The feed URL, the topic URL or the subscription id
+	 *
+	 * @return The subscription, or null
+	 */
+	public Subscription find( String urlOrId ) {
+		if ( urlOrId == null ) {
+			return null;
+		}
+		Subscription byId = subscriptions.get( urlOrId );
+		if ( byId != null ) {
+			return byId;
+		}
+		return subscriptions.values().stream()
+		    .filter( subscription -> urlOrId.equals( subscription.topic() ) || urlOrId.equals( subscription.feedUrl() ) )
+		    .findFirst()
+		    .orElse( null );
+	}
+
+	/**
+	 * @return The subscriptions as structs, without their secret, each with pollDue
+	 */
+	public Array snapshot() {
+		Array result = new Array();
+		subscriptions.values().stream()
+		    .sorted( ( a, b ) -> a.topic().compareTo( b.topic() ) )
+		    .forEach( subscription -> {
+			    IStruct struct = subscription.toStruct();
+			    struct.put( "pollDue", pollDue( subscription.id() ) );
+			    result.add( struct );
+		    } );
+		return result;
+	}
+
+	/**
+	 * @param seconds The lease requested by default
+	 *
+	 * @return This subscriber
+	 */
+	public WebSubSubscriber setLeaseSeconds( long seconds ) {
+		this.leaseSeconds = positive( "leaseSeconds", seconds );
+		return this;
+	}
+
+	/**
+	 * @param seconds How long before its expiry a lease is renewed
+	 *
+	 * @return This subscriber
+	 */
+	public WebSubSubscriber setRenewBefore( long seconds ) {
+		this.renewBeforeSeconds = positive( "renewBeforeSeconds", seconds );
+		return this;
+	}
+
+	/**
+	 * @param seconds How long without a distribution before an active subscription is polled anyway
+	 *
+	 * @return This subscriber
+	 */
+	public WebSubSubscriber setFallbackPoll( long seconds ) {
+		this.fallbackPollSeconds = positive( "fallbackPollSeconds", seconds );
+		return this;
+	}
+
+	/**
+	 * @param seconds How often the leases are checked for renewal; applies from the next start
+	 *
+	 * @return This subscriber
+	 */
+	public WebSubSubscriber setCheckInterval( long seconds ) {
+		this.checkSeconds = positive( "checkSeconds", seconds );
+		return this;
+	}
+
+	/**
+	 * @param seconds The timeout of the hub and discovery requests, 0 for none
+	 *
+	 * @return This subscriber
+	 */
+	public WebSubSubscriber setTimeout( long seconds ) {
+		this.timeoutSeconds = Math.max( 0, seconds );
+		return this;
+	}
+
+	/**
+	 * @param clock The time source
+	 *
+	 * @return This subscriber
+	 */
+	public WebSubSubscriber setClock( Clock clock ) {
+		this.clock = clock;
+		return this;
+	}
+
+	/**
+	 * Stop the lease renewals and drop every subscription, without unsubscribing: the hubs let the leases expire.
+	 */
+	public synchronized void stop() {
+		if ( renewals != null ) {
+			renewals.shutdownNow();
+			renewals = null;
+		}
+		subscriptions.clear();
+	}
+
+	/**
+	 * Start the periodic lease check, once.
+	 */
+	private synchronized void startRenewals() {
+		if ( renewals != null ) {
+			return;
+		}
+		renewals = Executors.newSingleThreadScheduledExecutor( runnable -> {
+			Thread thread = new Thread( runnable, "bxrss-websub" );
+			thread.setDaemon( true );
+			return thread;
+		} );
+		renewals.scheduleWithFixedDelay( () -> {
+			try {
+				renewDue();
+			} catch ( RuntimeException e ) {
+				// Keep checking: the failure is recorded on the subscription
+			}
+		}, checkSeconds, checkSeconds, TimeUnit.SECONDS );
+	}
+
+	/**
+	 * Send a subscription request to the hub.
+	 */
+	private void request( Subscription subscription, String mode ) {
+		Map<String, String> form = new LinkedHashMap<>();
+		form.put( "hub.mode", mode );
+		form.put( "hub.topic", subscription.topic() );
+		form.put( "hub.callback", subscription.callback() );
+		if ( "subscribe".equals( mode ) ) {
+			form.put( "hub.lease_seconds", String.valueOf( subscription.leaseSeconds() ) );
+			form.put( "hub.secret", subscription.secret() );
+		}
+		String body = form.entrySet().stream()
+		    .map( entry -> URLEncoder.encode( entry.getKey(), StandardCharsets.UTF_8 ) + "=" + URLEncoder.encode( entry.getValue(), StandardCharsets.UTF_8 ) )
+		    .collect( Collectors.joining( "&" ) );
+
+		try {
+			HttpRequest.Builder request = HttpRequest.newBuilder( URI.create( subscription.hub() ) )
+			    .header( "Content-Type", "application/x-www-form-urlencoded" )
+			    .POST( HttpRequest.BodyPublishers.ofString( body ) );
+			if ( timeoutSeconds > 0 ) {
+				request.timeout( Duration.ofSeconds( timeoutSeconds ) );
+			}
+			HttpResponse<String> response = CLIENT.send( request.build(), HttpResponse.BodyHandlers.ofString() );
+			if ( response.statusCode() < 200 || response.statusCode() >= 300 ) {
+				throw new BoxIOException( "The WebSub hub [" + subscription.hub() + "] refused to " + mode + " [" + subscription.topic() + "]: HTTP "
+				    + response.statusCode() + ( response.body().isBlank() ? "" : " " + response.body().strip() ), null );
+			}
+		} catch ( IOException | IllegalArgumentException e ) {
+			throw new BoxIOException( "Unable to reach the WebSub hub [" + subscription.hub() + "]: " + e.getMessage(), e );
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new BoxIOException( "Interrupted while contacting the WebSub hub [" + subscription.hub() + "]", e );
+		}
+	}
+
+	private static String withId( String callback, String id ) {
+		return callback + ( callback.contains( "?" ) ? "&" : "?" ) + ID_PARAM + "=" + URLEncoder.encode( id, StandardCharsets.UTF_8 );
+	}
+
+	private static String newSecret() {
+		byte[] secret = new byte[ 32 ];
+		RANDOM.nextBytes( secret );
+		return HexFormat.of().formatHex( secret );
+	}
+
+	private static String param( IStruct params, Key key ) {
+		Object value = params == null ? null : params.get( key );
+		return value == null ? "" : String.valueOf( value ).trim();
+	}
+
+	private static long parseLease( String value, long requested ) {
+		try {
+			long lease = Long.parseLong( value );
+			return lease > 0 ? lease : requested;
+		} catch ( NumberFormatException e ) {
+			return requested;
+		}
+	}
+
+	private static long positive( String name, long seconds ) {
+		if ( seconds < 1 ) {
+			throw new BoxValidationException( "Invalid WebSub " + name + " [" + seconds + "]. Must be 1 or more." );
+		}
+		return seconds;
+	}
+
+	private static String format( long epochMillis ) {
+		return epochMillis == 0 ? "" : Instant.ofEpochMilli( epochMillis ).toString();
+	}
+
+}
@@ -60,6 +60,17 @@ public abstract class BaseIntegrationTest {
 		variables	= context.getScopeNearby( VariablesScope.name );
 	}
 
+	/**
+	 * Get the file URI of a feed fixture in src/test/resources/feeds
+	 *
+	 * @param name The fixture file name
+	 *
+	 * @return The file: URI of the fixture
+	 */
+	protected static String fixtureUrl( String name ) {
+		return Path.of( "src/test/resources/feeds", name ).toAbsolutePath().toUri().toString();
+	}
+
 	protected static void loadModule( IBoxContext context ) {
 		if ( !runtime.getModuleService().hasModule( moduleName ) ) {
 			System.out.println( "Loading module: " + moduleName );
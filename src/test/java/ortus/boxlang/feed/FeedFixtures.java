@@ -0,0 +1,115 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Generates synthetic RSS 2.0 feeds of any size for tests and benchmarks.
+ * <p>
+ * Items are newest first, one hour apart, and cycle through a fixed set of authors and categories. Every third item has an
+ * audio enclosure.
+ */
+public final class FeedFixtures {
+
+	public static final String[]		AUTHORS		= { "luis@example.com (Luis Majano)", "jane@example.com (Jane Doe)", "brad@example.com (Brad Wood)" };
+	public static final String[]		CATEGORIES	= { "BoxLang", "Podcast", "Release", "Modules", "Java" };
+	public static final ZonedDateTime	NEWEST		= ZonedDateTime.of( 2024, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC );
+
+	private FeedFixtures() {
+	}
+
+	/**
+	 * Build an RSS 2.0 document with the given number of items.
+	 *
+	 * @param items The number of items
+	 *
+	 * @return The feed XML
+	 */
+	public static String rss( int items ) {
+		StringBuilder sb = new StringBuilder( 256 + items * 400 );
+		try {
+			write( sb, items, null );
+		} catch ( IOException e ) {
+			throw new IllegalStateException( e );
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Write an RSS 2.0 document with the given number of items to a file.
+	 *
+	 * @param file  The target file
+	 * @param items The number of items
+	 *
+	 * @return The file
+	 */
+	public static Path writeRss( Path file, int items ) throws IOException {
+		try ( Writer writer = Files.newBufferedWriter( file, StandardCharsets.UTF_8 ) ) {
+			write( writer, items, null );
+		}
+		return file;
+	}
+
+	/**
+	 * Write an RSS 2.0 document.
+	 *
+	 * @param out      The target
+	 * @param items    The number of items
+	 * @param nextPage Optional href of the next page, emitted as an atom:link rel="next"
+	 */
+	public static void write( Appendable out, int items, String nextPage ) throws IOException {
+		out.append( "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" )
+		    .append( "<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\">\n<channel>\n" )
+		    .append( "<title>Generated Feed</title>\n<link>https://example.com/</link>\n" )
+		    .append( "<description>Synthetic feed with " ).append( String.valueOf( items ) ).append( " items</description>\n" );
+		if ( nextPage != null ) {
+			out.append( "<atom:link rel=\"next\" href=\"" ).append( nextPage ).append( "\" />\n" );
+		}
+		for ( int i = 0; i < items; i++ ) {
+			item( out, i );
+		}
+		out.append( "</channel>\n</rss>\n" );
+	}
+
+	/**
+	 * Write a single item.
+	 *
+	 * @param out   The target
+	 * @param index The item index, 0 being the newest
+	 */
+	public static void item( Appendable out, int index ) throws IOException {
+		String link = "https://example.com/story/" + index;
+		out.append( "<item>\n<title>Story " ).append( String.valueOf( index ) ).append( "</title>\n" )
+		    .append( "<link>" ).append( link ).append( "</link>\n" )
+		    .append( "<guid>" ).append( link ).append( "</guid>\n" )
+		    .append( "<description>Body of story " ).append( String.valueOf( index ) ).append( " with some text to parse.</description>\n" )
+		    .append( "<author>" ).append( AUTHORS[ index % AUTHORS.length ] ).append( "</author>\n" )
+		    .append( "<category>" ).append( CATEGORIES[ index % CATEGORIES.length ] ).append( "</category>\n" )
+		    .append( "<pubDate>" ).append( DateTimeFormatter.RFC_1123_DATE_TIME.format( NEWEST.minusHours( index ) ) ).append( "</pubDate>\n" );
+		if ( index % 3 == 0 ) {
+			out.append( "<enclosure url=\"" ).append( link ).append( ".mp3\" type=\"audio/mpeg\" length=\"1024\" />\n" );
+		}
+		out.append( "</item>\n" );
+	}
+
+}
@@ -0,0 +1,243 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for a feed host, serving documents in throttled chunks and recording how much of each response was sent.
+ * Routes can also simulate a slow or flaky upstream, with a latency before each response and a rate of HTTP 500 errors.
+ * <p>
+ * A response stops as soon as the client closes the connection, so {@link Route#bytesSent()} tells whether a client really
+ * stopped downloading.
+ */
+public final class FeedTestServer implements AutoCloseable {
+
+	private final HttpServer			server;
+	private final Map<String, Route>	routes	= new ConcurrentHashMap<>();
+
+	/**
+	 * A served document and what happened to its last response.
+	 */
+	public static final class Route {
+
+		private final byte[]			body;
+		private final int				chunkSize;
+		private final long				chunkDelayMillis;
+		private final AtomicLong		bytesSent	= new AtomicLong();
+		private final AtomicLong		requests	= new AtomicLong();
+		private final AtomicLong		errors		= new AtomicLong();
+		private volatile long			latency		= 0;
+		private volatile double			errorRate	= 0;
+		private volatile boolean		aborted		= false;
+		private volatile CountDownLatch	done		= new CountDownLatch( 1 );
+
+		Route( byte[] body, int chunkSize, long chunkDelayMillis ) {
+			this.body				= body;
+			this.chunkSize			= chunkSize;
+			this.chunkDelayMillis	= chunkDelayMillis;
+		}
+
+		/**
+		 * @param millis The pause before the response starts, like a slow upstream
+		 *
+		 * @return This route
+		 */
+		public Route setLatency( long millis ) {
+			this.latency = millis;
+			return this;
+		}
+
+		/**
+		 * @param rate The fraction of the requests, between 0 and 1, answered with an HTTP 500
+		 *
+		 * @return This route
+		 */
+		public Route setErrorRate( double rate ) {
+			this.errorRate = rate;
+			return this;
+		}
+
+		/**
+		 * @return The size of the document
+		 */
+		public int size() {
+			return body.length;
+		}
+
+		/**
+		 * @return The bytes written for the last response
+		 */
+		public long bytesSent() {
+			return bytesSent.get();
+		}
+
+		/**
+		 * @return The number of requests served
+		 */
+		public long requests() {
+			return requests.get();
+		}
+
+		/**
+		 * @return The number of requests answered with an HTTP 500
+		 */
+		public long errors() {
+			return errors.get();
+		}
+
+		/**
+		 * @return Whether the client closed the connection before the end of the last response
+		 */
+		public boolean aborted() {
+			return aborted;
+		}
+
+		/**
+		 * Wait for the last response to end, completed or aborted.
+		 *
+		 * @param timeoutMillis The maximum time to wait
+		 *
+		 * @return False on timeout
+		 */
+		public boolean awaitResponse( long timeoutMillis ) throws InterruptedException {
+			return done.await( timeoutMillis, TimeUnit.MILLISECONDS );
+		}
+
+		void serve( HttpExchange exchange ) throws IOException {
+			requests.incrementAndGet();
+			bytesSent.set( 0 );
+			aborted	= false;
+			done	= new CountDownLatch( 1 );
+			try ( exchange ) {
+				if ( latency > 0 ) {
+					Thread.sleep( latency );
+				}
+				if ( errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate ) {
+					errors.incrementAndGet();
+					exchange.sendResponseHeaders( 500, -1 );
+					return;
+				}
+				exchange.getResponseHeaders().set( "Content-Type", "application/rss+xml; charset=utf-8" );
+				exchange.sendResponseHeaders( 200, body.length );
+				OutputStream out = exchange.getResponseBody();
+				for ( int offset = 0; offset < body.length; offset += chunkSize ) {
+					int length = Math.min( chunkSize, body.length - offset );
+					out.write( body, offset, length );
+					out.flush();
+					bytesSent.addAndGet( length );
+					if ( chunkDelayMillis > 0 ) {
+						Thread.sleep( chunkDelayMillis );
+					}
+				}
+			} catch ( IOException e ) {
+				// The client went away
+				aborted = true;
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			} finally {
+				done.countDown();
+			}
+		}
+	}
+
+	private FeedTestServer( HttpServer server ) {
+		this.server = server;
+	}
+
+	/**
+	 * Start a server on a free loopback port.
+	 *
+	 * @return The running server
+	 */
+	public static FeedTestServer start() throws IOException {
+		HttpServer server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+		server.setExecutor( Executors.newCachedThreadPool( runnable -> {
+			Thread thread = new Thread( runnable, "feed-test-server" );
+			thread.setDaemon( true );
+			return thread;
+		} ) );
+		FeedTestServer feedServer = new FeedTestServer( server );
+		server.createContext( "/", exchange -> {
+			Route route = feedServer.routes.get( exchange.getRequestURI().getPath() );
+			if ( route == null ) {
+				byte[] notFound = "Not found".getBytes( StandardCharsets.UTF_8 );
+				try ( exchange ) {
+					exchange.sendResponseHeaders( 404, notFound.length );
+					exchange.getResponseBody().write( notFound );
+				}
+				return;
+			}
+			route.serve( exchange );
+		} );
+		server.start();
+		return feedServer;
+	}
+
+	/**
+	 * Serve a document.
+	 *
+	 * @param path             The request path, e.g. {@code /feed.xml}
+	 * @param body             The document
+	 * @param chunkSize        The number of bytes written at a time
+	 * @param chunkDelayMillis The pause after each chunk, 0 for none
+	 *
+	 * @return The route, to inspect the responses
+	 */
+	public Route serve( String path, String body, int chunkSize, long chunkDelayMillis ) {
+		Route route = new Route( body.getBytes( StandardCharsets.UTF_8 ), chunkSize, chunkDelayMillis );
+		routes.put( path, route );
+		return route;
+	}
+
+	/**
+	 * @param path The request path
+	 *
+	 * @return The route of the path, or null
+	 */
+	public Route route( String path ) {
+		return routes.get( path );
+	}
+
+	/**
+	 * @param path The request path
+	 *
+	 * @return The absolute URL of the path
+	 */
+	public String url( String path ) {
+		InetSocketAddress address = server.getAddress();
+		return "http://" + address.getHostString() + ":" + address.getPort() + path;
+	}
+
+	@Override
+	public void close() {
+		server.stop( 0 );
+	}
+
+}
@@ -0,0 +1,159 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for a WebSub hub: it records the subscription requests posted to it and answers them with a fixed status.
+ * The tests play the hub side of the verification and the distribution themselves, calling the callback handler with the
+ * recorded callback, topic and secret, and signing the pushed documents with {@link #sign(String, String)}.
+ */
+public final class WebSubTestHub implements AutoCloseable {
+
+	private final HttpServer				server;
+	private final List<Map<String, String>>	requests	= new CopyOnWriteArrayList<>();
+	private volatile int					status		= 202;
+
+	private WebSubTestHub( HttpServer server ) {
+		this.server = server;
+	}
+
+	/**
+	 * Start a hub on a free loopback port, at {@code /hub}.
+	 *
+	 * @return The running hub
+	 */
+	public static WebSubTestHub start() throws IOException {
+		HttpServer server = HttpServer.create( new InetSocketAddress( InetAddress.getLoopbackAddress(), 0 ), 0 );
+		server.setExecutor( Executors.newCachedThreadPool( runnable -> {
+			Thread thread = new Thread( runnable, "websub-test-hub" );
+			thread.setDaemon( true );
+			return thread;
+		} ) );
+		WebSubTestHub hub = new WebSubTestHub( server );
+		server.createContext( "/hub", exchange -> {
+			try ( exchange ) {
+				Map<String, String> form = new LinkedHashMap<>();
+				for ( String pair : new String( exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8 ).split( "&" ) ) {
+					int separator = pair.indexOf( '=' );
+					if ( separator > 0 ) {
+						form.put( URLDecoder.decode( pair.substring( 0, separator ), StandardCharsets.UTF_8 ),
+						    URLDecoder.decode( pair.substring( separator + 1 ), StandardCharsets.UTF_8 ) );
+					}
+				}
+				hub.requests.add( form );
+				exchange.sendResponseHeaders( hub.status, -1 );
+			}
+		} );
+		server.start();
+		return hub;
+	}
+
+	/**
+	 * @param status The HTTP status of the next responses, 202 by default
+	 *
+	 * @return This hub
+	 */
+	public WebSubTestHub setStatus( int status ) {
+		this.status = status;
+		return this;
+	}
+
+	/**
+	 * @return The form parameters of the requests received, oldest first
+	 */
+	public List<Map<String, String>> requests() {
+		return List.copyOf( requests );
+	}
+
+	/**
+	 * @return The form parameters of the last request received, or null
+	 */
+	public Map<String, String> last() {
+		return requests.isEmpty() ? null : requests.get( requests.size() - 1 );
+	}
+
+	/**
+	 * @return The URL subscribers post to
+	 */
+	public String url() {
+		InetSocketAddress address = server.getAddress();
+		return "http://" + address.getHostString() + ":" + address.getPort() + "/hub";
+	}
+
+	/**
+	 * Sign a distribution as a hub does.
+	 *
+	 * @param secret The hub.secret of the subscription
+	 * @param body   The pushed document
+	 *
+	 * @return The {@code X-Hub-Signature} header value
+	 */
+	public static String sign( String secret, String body ) throws GeneralSecurityException {
+		Mac mac = Mac.getInstance( "HmacSHA256" );
+		mac.init( new SecretKeySpec( secret.getBytes( StandardCharsets.UTF_8 ), "HmacSHA256" ) );
+		return "sha256=" + HexFormat.of().formatHex( mac.doFinal( body.getBytes( StandardCharsets.UTF_8 ) ) );
+	}
+
+	/**
+	 * A feed document declaring a hub and a self link, with one item per title.
+	 *
+	 * @param hub    The hub URL
+	 * @param self   The topic URL
+	 * @param titles The item titles
+	 *
+	 * @return The RSS 2.0 document
+	 */
+	public static String feed( String hub, String self, String... titles ) {
+		StringBuilder xml = new StringBuilder( """
+		    <?xml version="1.0" encoding="UTF-8"?>
+		    <rss version="2.0" xmlns:atom="http://www.w3.org/2005/Atom">
+		    <channel>
+		    <title>Pushed Feed</title>
+		    <link>https://example.com/</link>
+		    <description>A feed with a WebSub hub</description>
+		    """ );
+		xml.append( "<atom:link rel=\"hub\" href=\"" ).append( hub ).append( "\"/>\n" );
+		xml.append( "<atom:link rel=\"self\" href=\"" ).append( self ).append( "\"/>\n" );
+		for ( String title : titles ) {
+			xml.append( "<item><title>" ).append( title ).append( "</title><link>https://example.com/" )
+			    .append( title.replace( ' ', '-' ).toLowerCase() ).append( "</link><description>Pushed content</description></item>\n" );
+		}
+		return xml.append( "</channel>\n</rss>\n" ).toString();
+	}
+
+	@Override
+	public void close() {
+		server.stop( 0 );
+	}
+
+}
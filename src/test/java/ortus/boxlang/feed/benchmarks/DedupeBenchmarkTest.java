@@ -0,0 +1,109 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.benchmarks;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+
+/**
+ * Measures the heap retained by a merged read (4 feeds of 12.5k items) held in a variable, without and with dedupe.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag( "benchmark" )
+public class DedupeBenchmarkTest extends BaseIntegrationTest {
+
+	private static final int	FEEDS		= 4;
+	private static final int	ITEMS		= 12_500;
+	private static Array		urls;
+
+	@BeforeAll
+	public static void createFixtures() throws IOException {
+		urls = new Array();
+		for ( int i = 0; i < FEEDS; i++ ) {
+			urls.add( FeedFixtures.writeRss( Files.createTempFile( "bxrss-dedupe-bench", ".xml" ), ITEMS ).toUri().toString() );
+		}
+	}
+
+	@AfterAll
+	public static void deleteFixtures() throws IOException {
+		for ( Object url : urls ) {
+			Files.deleteIfExists( Path.of( URI.create( ( String ) url ) ) );
+		}
+	}
+
+	@DisplayName( "Benchmark the heap retained by a merged read with and without dedupe" )
+	@Test
+	public void benchmarkDedupe() {
+		variables.put( Key.of( "feedUrls" ), urls );
+
+		long	none	= retained( "none" );
+		long	read	= retained( "read" );
+		long	global	= retained( "global" );
+
+		System.out.printf(
+		    "Dedupe benchmark (%,d items): none %,d KB, read %,d KB (%.1f%% saved), global %,d KB (%.1f%% saved)%n",
+		    FEEDS * ITEMS, none / 1024, read / 1024, saved( none, read ), global / 1024, saved( none, global )
+		);
+
+		assertThat( read ).isLessThan( none );
+	}
+
+	/**
+	 * Reads the feeds into a variable and returns the heap it retains.
+	 */
+	private long retained( String mode ) {
+		variables.put( Key.of( "mode" ), mode );
+		variables.remove( Key.of( "held" ) );
+		long before = usedHeap();
+		runtime.executeSource( "held = rss( urls = feedUrls, sortBy = 'none', dedupe = mode ).items", context );
+		long after = usedHeap();
+		assertThat( variables.getAsArray( Key.of( "held" ) ).size() ).isEqualTo( FEEDS * ITEMS );
+		variables.remove( Key.of( "held" ) );
+		return after - before;
+	}
+
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for ( int i = 0; i < 3; i++ ) {
+			System.gc();
+			try {
+				Thread.sleep( 100 );
+			} catch ( InterruptedException e ) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static double saved( long baseline, long value ) {
+		return 100d * ( baseline - value ) / baseline;
+	}
+
+}
@@ -0,0 +1,112 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.benchmarks;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.Struct;
+
+/**
+ * Compares the escaping of HTML-heavy feed entries (2k entries with 8 KB bodies): a BoxLang xmlFormat call per value, the
+ * single-pass Java escaping of escapeChars, and CDATA bodies.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag( "benchmark" )
+public class EscapeBenchmarkTest extends BaseIntegrationTest {
+
+	private static final int	ENTRIES		= 2_000;
+	private static final int	BODY_CHARS	= 8 * 1024;
+	private static final int	ROUNDS		= 5;
+	private static Array		data;
+
+	@BeforeAll
+	public static void createFixture() {
+		String			paragraph	= "<p>Release <a href=\"https://boxlang.io/?a=1&b=2\">notes</a> &amp; <code>if( a < b && c > d )</code>, it's \"fast\".</p>\n";
+		StringBuilder	body		= new StringBuilder( BODY_CHARS + paragraph.length() );
+		while ( body.length() < BODY_CHARS ) {
+			body.append( paragraph );
+		}
+		data = new Array();
+		for ( int i = 0; i < ENTRIES; i++ ) {
+			data.add( Struct.of(
+			    "title", "Story " + i + " & <more>",
+			    "link", "https://example.com/story/" + i,
+			    "description", i + ": " + body
+			) );
+		}
+	}
+
+	@DisplayName( "Benchmark xmlFormat, single-pass escaping and CDATA bodies on HTML-heavy entries" )
+	@Test
+	public void benchmarkEscaping() {
+		variables.put( Key.of( "data" ), data );
+
+		// @formatter:off
+		String xmlFormatCreate	= """
+			import bxModules.bxrss.models.FeedUtil;
+			escaped = data.map( ( row ) => { title : xmlFormat( row.title ), link : row.link, description : xmlFormat( row.description ) } )
+			xml = FeedUtil.createFeed( properties = { title : "Bench", link : "https://example.com" }, data = escaped ).xml
+			""";
+		String javaCreate		= """
+			import bxModules.bxrss.models.FeedUtil;
+			xml = FeedUtil.createFeed( properties = { title : "Bench", link : "https://example.com" }, data = data, escapeChars = true ).xml
+			""";
+		String cdataCreate		= """
+			import bxModules.bxrss.models.FeedUtil;
+			xml = FeedUtil.createFeed( properties = { title : "Bench", link : "https://example.com" }, data = data, cdata = true ).xml
+			""";
+		// @formatter:on
+
+		long	xmlFormatNanos	= time( xmlFormatCreate );
+		String	xmlFormatXml	= variables.getAsString( Key.of( "xml" ) );
+		long	javaNanos		= time( javaCreate );
+		String	javaXml			= variables.getAsString( Key.of( "xml" ) );
+		long	cdataNanos		= time( cdataCreate );
+		String	cdataXml		= variables.getAsString( Key.of( "xml" ) );
+
+		System.out.printf(
+		    "Escape benchmark (%,d entries of %,d chars, best of %d): xmlFormat %,d ms, escapeChars %,d ms (%.1fx), cdata %,d ms (%.1fx)%n",
+		    ENTRIES, BODY_CHARS, ROUNDS, xmlFormatNanos / 1_000_000, javaNanos / 1_000_000, ( double ) xmlFormatNanos / javaNanos,
+		    cdataNanos / 1_000_000, ( double ) xmlFormatNanos / cdataNanos
+		);
+
+		// The Java escaping writes the same document as xmlFormat
+		assertThat( javaXml ).isEqualTo( xmlFormatXml );
+		assertThat( cdataXml ).contains( "<![CDATA[0: <p>Release" );
+	}
+
+	/**
+	 * Runs the source once to warm up, then returns the best time of the measured rounds.
+	 */
+	private long time( String source ) {
+		runtime.executeSource( source, context );
+		long best = Long.MAX_VALUE;
+		for ( int i = 0; i < ROUNDS; i++ ) {
+			long start = System.nanoTime();
+			runtime.executeSource( source, context );
+			best = Math.min( best, System.nanoTime() - start );
+		}
+		return best;
+	}
+
+}
@@ -0,0 +1,104 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.benchmarks;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.runtime.scopes.Key;
+
+/**
+ * Compares BoxLang closure filters against declarative (Java-evaluated) filters on a 50k item feed.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag( "benchmark" )
+public class FilterBenchmarkTest extends BaseIntegrationTest {
+
+	private static final int	ITEMS		= 50_000;
+	private static final int	ROUNDS		= 5;
+	private static Path			fixture;
+
+	@BeforeAll
+	public static void createFixture() throws IOException {
+		fixture = FeedFixtures.writeRss( Files.createTempFile( "bxrss-filter-bench", ".xml" ), ITEMS );
+	}
+
+	@AfterAll
+	public static void deleteFixture() throws IOException {
+		Files.deleteIfExists( fixture );
+	}
+
+	@DisplayName( "Benchmark closure vs declarative filters on a 50k item feed" )
+	@Test
+	public void benchmarkFilters() {
+		variables.put( Key.of( "feedUrl" ), fixture.toUri().toString() );
+
+		// @formatter:off
+		String closureRead		= """
+			count = rss(
+				urls = feedUrl,
+				sortBy = "none",
+				filter = ( i ) -> i.getTitle().orElse( "" ).findNoCase( "7" ) > 0 && i.getEnclosures().size() > 0
+			).items.size()
+			""";
+		String declarativeRead	= """
+			count = rss(
+				urls = feedUrl,
+				sortBy = "none",
+				filter = { titleContains : "7", hasEnclosure : true }
+			).items.size()
+			""";
+		// @formatter:on
+
+		long	closureNanos		= time( closureRead );
+		int		closureCount		= variables.getAsInteger( Key.of( "count" ) );
+		long	declarativeNanos	= time( declarativeRead );
+		int		declarativeCount	= variables.getAsInteger( Key.of( "count" ) );
+
+		System.out.printf(
+		    "Filter benchmark (%,d items, best of %d): closure %,d ms, declarative %,d ms (%.1fx)%n",
+		    ITEMS, ROUNDS, closureNanos / 1_000_000, declarativeNanos / 1_000_000, ( double ) closureNanos / declarativeNanos
+		);
+
+		assertThat( closureCount ).isGreaterThan( 0 );
+		assertThat( declarativeCount ).isEqualTo( closureCount );
+	}
+
+	/**
+	 * Runs the source once to warm up, then returns the best time of the measured rounds.
+	 */
+	private long time( String source ) {
+		runtime.executeSource( source, context );
+		long best = Long.MAX_VALUE;
+		for ( int i = 0; i < ROUNDS; i++ ) {
+			long start = System.nanoTime();
+			runtime.executeSource( source, context );
+			best = Math.min( best, System.nanoTime() - start );
+		}
+		return best;
+	}
+
+}
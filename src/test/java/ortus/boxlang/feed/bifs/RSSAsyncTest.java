@@ -0,0 +1,88 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.feed.FeedTestServer;
+import ortus.boxlang.runtime.scopes.Key;
+
+public class RSSAsyncTest extends BaseIntegrationTest {
+
+	@DisplayName( "Test rssAsync returns a future of the rss result" )
+	@Test
+	public void testAsyncResult() throws Exception {
+		Path feed = FeedFixtures.writeRss( Files.createTempFile( "bxrss-async", ".xml" ), 10 );
+		try {
+			variables.put( Key.of( "feedUrl" ), feed.toUri().toString() );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				future = rssAsync( urls = feedUrl, maxItems = 3 )
+				result = future.get()
+				sync = rss( urls = feedUrl, maxItems = 3 )
+				titles = result.items.map( ( i ) => i.title ).toList()
+				syncTitles = sync.items.map( ( i ) => i.title ).toList()
+				chained = rssAsync( urls = feedUrl, filter = { categories : [ "podcast" ] } ).then( ( r ) => r.items.len() ).get()
+				""",
+			    context
+			);
+			// @formatter:on
+
+			assertThat( variables.getAsStruct( Key.of( "result" ) ).getAsStruct( Key.of( "channel" ) ) ).isNotNull();
+			assertThat( variables.getAsString( Key.of( "titles" ) ) ).isEqualTo( variables.getAsString( Key.of( "syncTitles" ) ) );
+			assertThat( ( ( Number ) variables.get( Key.of( "chained" ) ) ).intValue() ).isEqualTo( 2 );
+		} finally {
+			Files.deleteIfExists( feed );
+		}
+	}
+
+	@DisplayName( "Test cancelling the rssAsync future aborts the in-flight download" )
+	@Test
+	public void testCancelAbortsDownload() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			// About 8 MB, served 16 KB every 10 ms: a full download takes several seconds
+			FeedTestServer.Route route = server.serve( "/async.xml", FeedFixtures.rss( 20_000 ), 16 * 1024, 10 );
+			variables.put( Key.of( "feedUrl" ), server.url( "/async.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				future = rssAsync( urls = feedUrl, circuitBreaker = false )
+				""",
+			    context
+			);
+			// @formatter:on
+
+			long deadline = System.currentTimeMillis() + 10_000;
+			while ( route.requests() == 0 && System.currentTimeMillis() < deadline ) {
+				Thread.sleep( 10 );
+			}
+			assertThat( route.requests() ).isEqualTo( 1L );
+
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				cancelled = future.cancel( true )
+				isCancelled = future.isCancelled()
+				""",
+			    context
+			);
+			// @formatter:on
+
+			assertThat( variables.getAsBoolean( Key.of( "cancelled" ) ) ).isTrue();
+			assertThat( variables.getAsBoolean( Key.of( "isCancelled" ) ) ).isTrue();
+
+			// The server saw the client go away long before the end of the document
+			assertThat( route.awaitResponse( 10_000 ) ).isTrue();
+			assertThat( route.aborted() ).isTrue();
+			assertThat( route.bytesSent() ).isLessThan( route.size() / 2L );
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+
+public class RSSBatchTest extends BaseIntegrationTest {
+
+	@TempDir
+	Path feedsDir;
+
+	@BeforeEach
+	public void createFeeds() throws IOException {
+		Array urls = new Array();
+		for ( int i = 1; i <= 6; i++ ) {
+			urls.add( FeedFixtures.writeRss( feedsDir.resolve( "feed-" + i + ".xml" ), i ).toUri().toString() );
+		}
+		urls.add( feedsDir.resolve( "missing.xml" ).toUri().toString() );
+		variables.put( Key.of( "urls" ), urls );
+	}
+
+	@DisplayName( "Test rssBatch calls onFeed for every feed as it completes" )
+	@Test
+	public void testBatch() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			counts = {}
+			errors = []
+			summary = rssBatch(
+				urls = urls,
+				concurrency = 2,
+				onFeed = ( url, result, error ) => {
+					if( isNull( error ) ) {
+						counts[ url.listLast( "/" ) ] = result.items.len()
+					} else {
+						errors.append( url.listLast( "/" ) )
+					}
+				}
+			)
+			""",
+		    context
+		);
+		// @formatter:on
+
+		IStruct	counts	= variables.getAsStruct( Key.of( "counts" ) );
+		IStruct	summary	= variables.getAsStruct( Key.of( "summary" ) );
+
+		assertThat( counts.size() ).isEqualTo( 6 );
+		assertThat( counts.getAsInteger( Key.of( "feed-4.xml" ) ) ).isEqualTo( 4 );
+		assertThat( variables.getAsArray( Key.of( "errors" ) ) ).containsExactly( "missing.xml" );
+		assertThat( summary.getAsInteger( Key.of( "feeds" ) ) ).isEqualTo( 7 );
+		assertThat( summary.getAsInteger( Key.of( "succeeded" ) ) ).isEqualTo( 6 );
+		assertThat( summary.getAsInteger( Key.of( "failed" ) ) ).isEqualTo( 1 );
+		assertThat( summary.getAsInteger( Key.of( "items" ) ) ).isEqualTo( 21 );
+	}
+
+	@DisplayName( "Test rssBatch applies filters and limits per feed, and stops when onFeed returns false" )
+	@Test
+	public void testBatchFilterAndStop() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			limited = []
+			rssBatch( urls = urls, maxItems = 2, filter = { hasEnclosure : true }, onFeed = ( url, result, error ) => {
+				if( isNull( error ) ) {
+					limited.append( result.items.len() )
+				}
+			} )
+
+			seen = 0
+			stopped = rssBatch( urls = urls, concurrency = 1, onFeed = ( url, result, error ) => {
+				seen++
+				return seen < 3
+			} )
+			""",
+		    context
+		);
+		// @formatter:on
+
+		// Feeds 1-6 have 1, 1, 1, 2, 2, 2 items with an enclosure
+		assertThat( variables.getAsArray( Key.of( "limited" ) ).stream().mapToInt( v -> ( ( Number ) v ).intValue() ).sum() ).isEqualTo( 9 );
+		assertThat( variables.getAsInteger( Key.of( "seen" ) ) ).isEqualTo( 3 );
+		assertThat( variables.getAsStruct( Key.of( "stopped" ) ).getAsInteger( Key.of( "feeds" ) ) ).isEqualTo( 3 );
+	}
+
+}
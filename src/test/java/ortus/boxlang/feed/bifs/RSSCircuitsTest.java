@@ -0,0 +1,157 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.feed.FeedTestServer;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+
+public class RSSCircuitsTest extends BaseIntegrationTest {
+
+	private static FeedTestServer server;
+
+	@BeforeAll
+	public static void startServer() throws IOException {
+		server = FeedTestServer.start();
+	}
+
+	@AfterAll
+	public static void stopServer() {
+		server.close();
+	}
+
+	@DisplayName( "Test a failing feed opens its circuit, is served stale and is no longer requested" )
+	@Test
+	public void testOpenCircuitServesStale() {
+		FeedTestServer.Route route = server.serve( "/circuit-stale.xml", FeedFixtures.rss( 3 ), 64 * 1024, 0 );
+		variables.put( Key.of( "feedUrl" ), server.url( "/circuit-stale.xml" ) );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			rssCircuits( reset = true, url = feedUrl )
+			healthy = rss( urls = feedUrl )
+			""",
+		    context
+		);
+		// @formatter:on
+		assertThat( variables.getAsStruct( Key.of( "healthy" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 3 );
+		assertThat( variables.getAsStruct( Key.of( "healthy" ) ).containsKey( Key.of( "circuits" ) ) ).isFalse();
+
+		// The upstream goes down: every failure is served from the last good items until the circuit opens
+		route.setErrorRate( 1 );
+		long healthyRequests = route.requests();
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			failing = []
+			for( i = 1; i <= 4; i++ ) {
+				failing.append( rss( urls = feedUrl ) )
+			}
+			beforeThreshold = rssCircuits().filter( ( c ) => c.key == feedUrl )[ 1 ]
+			failing.append( rss( urls = feedUrl ) )
+			circuit = rssCircuits().filter( ( c ) => c.key == feedUrl )[ 1 ]
+			""",
+		    context
+		);
+		// @formatter:on
+		// Each read requests the feed and counts towards its circuit once
+		IStruct beforeThreshold = variables.getAsStruct( Key.of( "beforeThreshold" ) );
+		assertThat( beforeThreshold.getAsString( Key.of( "state" ) ) ).isEqualTo( "closed" );
+		assertThat( ( ( Number ) beforeThreshold.get( Key.of( "failures" ) ) ).intValue() ).isEqualTo( 4 );
+		assertThat( route.requests() - healthyRequests ).isEqualTo( 5L );
+
+		Array failing = variables.getAsArray( Key.of( "failing" ) );
+		for ( Object read : failing ) {
+			IStruct result = ( IStruct ) read;
+			assertThat( result.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 3 );
+			assertThat( result.getAsStruct( Key.of( "circuits" ) ).getAsString( Key.of( server.url( "/circuit-stale.xml" ) ) ) ).isEqualTo( "stale" );
+		}
+		IStruct circuit = variables.getAsStruct( Key.of( "circuit" ) );
+		assertThat( circuit.getAsString( Key.of( "state" ) ) ).isEqualTo( "open" );
+		assertThat( circuit.getAsString( Key.of( "retryAt" ) ) ).isNotEmpty();
+
+		// While open, the feed is not requested at all
+		long requests = route.requests();
+		runtime.executeSource( "refused = rss( urls = feedUrl )", context );
+		assertThat( route.requests() ).isEqualTo( requests );
+		assertThat( variables.getAsStruct( Key.of( "refused" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 3 );
+	}
+
+	@DisplayName( "Test an unsorted read with maxItems skips an open circuit and serves the last good items" )
+	@Test
+	public void testMeteredReadThroughOpenCircuit() {
+		FeedTestServer.Route route = server.serve( "/circuit-metered.xml", FeedFixtures.rss( 3 ), 64 * 1024, 0 );
+		variables.put( Key.of( "feedUrl" ), server.url( "/circuit-metered.xml" ) );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			rssCircuits( reset = true, url = feedUrl )
+			healthy = rss( urls = feedUrl )
+			""",
+		    context
+		);
+		// @formatter:on
+		route.setErrorRate( 1 );
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			failing = []
+			for( i = 1; i <= 5; i++ ) {
+				failing.append( rss( urls = feedUrl, sortBy = "none", maxItems = 2 ) )
+			}
+			circuit = rssCircuits().filter( ( c ) => c.key == feedUrl )[ 1 ]
+			""",
+		    context
+		);
+		// @formatter:on
+		for ( Object read : variables.getAsArray( Key.of( "failing" ) ) ) {
+			IStruct result = ( IStruct ) read;
+			assertThat( result.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 2 );
+			assertThat( result.getAsStruct( Key.of( "circuits" ) ).getAsString( Key.of( server.url( "/circuit-metered.xml" ) ) ) ).isEqualTo( "stale" );
+		}
+		assertThat( variables.getAsStruct( Key.of( "circuit" ) ).getAsString( Key.of( "state" ) ) ).isEqualTo( "open" );
+
+		// While open, the feed is skipped without a request instead of failing the read
+		long requests = route.requests();
+		runtime.executeSource( "refused = rss( urls = feedUrl, sortBy = \"none\", maxItems = 2 )", context );
+		IStruct refused = variables.getAsStruct( Key.of( "refused" ) );
+		assertThat( route.requests() ).isEqualTo( requests );
+		assertThat( refused.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 2 );
+		assertThat( refused.getAsStruct( Key.of( "circuits" ) ).getAsString( Key.of( server.url( "/circuit-metered.xml" ) ) ) ).isEqualTo( "stale" );
+	}
+
+	@DisplayName( "Test a feed read without its circuit breaker is always requested" )
+	@Test
+	public void testCircuitBreakerOff() {
+		FeedTestServer.Route route = server.serve( "/circuit-off.xml", FeedFixtures.rss( 3 ), 64 * 1024, 0 ).setErrorRate( 1 );
+		variables.put( Key.of( "feedUrl" ), server.url( "/circuit-off.xml" ) );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			for( i = 1; i <= 6; i++ ) {
+				result = rss( urls = feedUrl, circuitBreaker = false )
+			}
+			circuits = rssCircuits().filter( ( c ) => c.key == feedUrl )
+			""",
+		    context
+		);
+		// @formatter:on
+		assertThat( route.requests() ).isEqualTo( 6 );
+		assertThat( variables.getAsStruct( Key.of( "result" ) ).getAsArray( Key.of( "items" ) ) ).isEmpty();
+		assertThat( variables.getAsArray( Key.of( "circuits" ) ) ).isEmpty();
+	}
+
+}
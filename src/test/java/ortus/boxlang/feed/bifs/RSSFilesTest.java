@@ -0,0 +1,117 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
+import ortus.boxlang.runtime.types.IStruct;
+
+public class RSSFilesTest extends BaseIntegrationTest {
+
+	@TempDir
+	Path feedsDir;
+
+	@BeforeEach
+	public void createFeeds() throws IOException {
+		FeedFixtures.writeRss( feedsDir.resolve( "a.xml" ), 5 );
+		FeedFixtures.writeRss( feedsDir.resolve( "b.xml" ), 5 );
+		FeedFixtures.writeRss( feedsDir.resolve( "c.xml" ), 5 );
+		Files.writeString( feedsDir.resolve( "broken.xml" ), "<rss><channel><item><title>Unclosed" );
+		Files.writeString( feedsDir.resolve( "notes.txt" ), "not a feed" );
+		Files.createDirectories( feedsDir.resolve( "2023" ) );
+		FeedFixtures.writeRss( feedsDir.resolve( "2023/d.xml" ), 4 );
+		variables.put( Key.of( "feedsDir" ), feedsDir.toString() );
+	}
+
+	@DisplayName( "Test rssFiles merges the items of every feed file in a directory" )
+	@Test
+	public void testMergedDirectory() {
+		runtime.executeSource( "result = rssFiles( path = feedsDir, parallelism = 2 )", context );
+
+		IStruct	result	= variables.getAsStruct( Key.of( "result" ) );
+		IStruct	stats	= result.getAsStruct( Key.of( "stats" ) );
+		Array	errors	= result.getAsArray( Key.of( "errors" ) );
+
+		assertThat( result.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 15 );
+		assertThat( stats.getAsInteger( Key.of( "files" ) ) ).isEqualTo( 4 );
+		assertThat( stats.getAsInteger( Key.of( "failed" ) ) ).isEqualTo( 1 );
+		assertThat( stats.getAsInteger( Key.of( "items" ) ) ).isEqualTo( 15 );
+		assertThat( ( ( Number ) stats.get( Key.of( "bytes" ) ) ).longValue() ).isGreaterThan( 0L );
+		assertThat( stats.containsKey( Key.of( "filesPerSecond" ) ) ).isTrue();
+		assertThat( stats.containsKey( Key.of( "bytesPerSecond" ) ) ).isTrue();
+		assertThat( errors.size() ).isEqualTo( 1 );
+		assertThat( ( ( IStruct ) errors.get( 0 ) ).getAsString( Key.of( "path" ) ) ).endsWith( "broken.xml" );
+	}
+
+	@DisplayName( "Test rssFiles with a recursive glob, a declarative filter and maxItems" )
+	@Test
+	public void testGlobWithFilter() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			all = rssFiles( path = feedsDir & "/**.xml" )
+			nested = rssFiles( path = feedsDir & "/2023/*.xml" )
+			podcasts = rssFiles( path = feedsDir & "/**.xml", filter = { hasEnclosure : true } )
+			latest = rssFiles( path = feedsDir & "/*.xml", maxItems = 3 )
+			closure = rssFiles( path = feedsDir & "/a.xml", filter = ( i ) -> i.getTitle().orElse( "" ) == "Story 2" )
+			""",
+		    context
+		);
+		// @formatter:on
+
+		assertThat( variables.getAsStruct( Key.of( "all" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 19 );
+		assertThat( variables.getAsStruct( Key.of( "nested" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 4 );
+		// Items 0 and 3 of each file have an enclosure
+		assertThat( variables.getAsStruct( Key.of( "podcasts" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 8 );
+		assertThat( variables.getAsStruct( Key.of( "latest" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 3 );
+		Array closureItems = variables.getAsStruct( Key.of( "closure" ) ).getAsArray( Key.of( "items" ) );
+		assertThat( closureItems.size() ).isEqualTo( 1 );
+		assertThat( ( ( IStruct ) closureItems.get( 0 ) ).getAsString( Key.of( "title" ) ) ).isEqualTo( "Story 2" );
+	}
+
+	@DisplayName( "Test rssFiles perFile mode returns one result per file" )
+	@Test
+	public void testPerFile() {
+		runtime.executeSource( "result = rssFiles( path = feedsDir, mode = 'perFile', maxItems = 2 )", context );
+
+		Array files = variables.getAsStruct( Key.of( "result" ) ).getAsArray( Key.of( "files" ) );
+		assertThat( files.size() ).isEqualTo( 4 );
+
+		IStruct first = ( IStruct ) files.get( 0 );
+		assertThat( first.getAsString( Key.of( "path" ) ) ).endsWith( "a.xml" );
+		assertThat( first.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 2 );
+		assertThat( first.getAsStruct( Key.of( "channel" ) ).getAsString( Key.of( "title" ) ) ).isEqualTo( "Generated Feed" );
+		assertThat( first.getAsString( Key.of( "error" ) ) ).isEmpty();
+
+		// Files are in path order: a, b, broken, c
+		IStruct broken = ( IStruct ) files.get( 2 );
+		assertThat( broken.getAsString( Key.of( "path" ) ) ).endsWith( "broken.xml" );
+		assertThat( broken.getAsString( Key.of( "error" ) ) ).isNotEmpty();
+	}
+
+	@DisplayName( "Test rssFiles memory-maps large files" )
+	@Test
+	public void testLargeFile() throws IOException {
+		Path large = FeedFixtures.writeRss( feedsDir.resolve( "large.rss" ), 4_000 );
+		assertThat( Files.size( large ) ).isGreaterThan( 1L << 20 );
+		variables.put( Key.of( "largeFile" ), large.toUri().toString() );
+
+		runtime.executeSource( "result = rssFiles( path = largeFile, sortBy = 'none', readAheadMB = 1 )", context );
+
+		IStruct result = variables.getAsStruct( Key.of( "result" ) );
+		assertThat( result.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 4_000 );
+		assertThat( result.getAsStruct( Key.of( "stats" ) ).getAsInteger( Key.of( "failed" ) ) ).isEqualTo( 0 );
+	}
+
+}
@@ -0,0 +1,59 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+
+public class RSSMetricsTest extends BaseIntegrationTest {
+
+	@DisplayName( "Test rssMetrics reports the module load and the first rss call" )
+	@Test
+	public void testFirstCallMetrics() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "sort-order.xml" ) );
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			rss( urls = feedUrl, itunes = true )
+			metrics = rssMetrics()
+			""",
+		    context
+		);
+		// @formatter:on
+
+		IStruct metrics = variables.getAsStruct( Key.of( "metrics" ) );
+		assertThat( ( ( Number ) metrics.get( Key.of( "loadMs" ) ) ).doubleValue() ).isAtLeast( 0d );
+		assertThat( metrics.getAsStruct( Key.of( "firstCallMs" ) ).containsKey( Key.of( "rss" ) ) ).isTrue();
+		assertThat( metrics.getAsArray( Key.of( "readers" ) ) ).contains( "itunes" );
+	}
+
+	@DisplayName( "Test the warm-up parses every format and records its timings" )
+	@Test
+	public void testWarmup() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			import java:ortus.boxlang.feed.read.Warmup@bxrss;
+
+			timings = Warmup.run()
+			metrics = rssMetrics()
+			""",
+		    context
+		);
+		// @formatter:on
+
+		IStruct warmup = variables.getAsStruct( Key.of( "metrics" ) ).getAsStruct( Key.of( "warmup" ) );
+		assertThat( warmup.getAsString( Key.of( "status" ) ) ).isEqualTo( "done" );
+		assertThat( ( ( Number ) warmup.get( Key.of( "elapsedMs" ) ) ).doubleValue() ).isGreaterThan( 0d );
+		IStruct formats = warmup.getAsStruct( Key.of( "formats" ) );
+		for ( String format : new String[] { "rss", "atom", "rdf", "itunes", "mediaRss" } ) {
+			assertThat( formats.containsKey( Key.of( format ) ) ).isTrue();
+		}
+		assertThat( variables.getAsStruct( Key.of( "metrics" ) ).getAsArray( Key.of( "readers" ) ) ).containsAtLeast( "rss", "itunes", "mediaRss" );
+	}
+
+}
@@ -0,0 +1,132 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+
+public class RSSSearchTest extends BaseIntegrationTest {
+
+	@DisplayName( "Test rssSearch finds indexed items by keyword, category and date range, newest first" )
+	@Test
+	public void testSearch() throws Exception {
+		Path feed = FeedFixtures.writeRss( Files.createTempFile( "bxrss-search", ".xml" ), 20 );
+		try {
+			variables.put( Key.of( "feedUrl" ), feed.toUri().toString() );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				import java:ortus.boxlang.feed.read.ItemIndex@bxrss;
+
+				ItemIndex.shared().clear()
+				unindexed = rss( urls = feedUrl )
+				empty = rssSearch( query = "story" )
+
+				rss( urls = feedUrl, index = true )
+				titles = ( result ) => result.items.map( ( i ) => i.title ).toList()
+				all = rssSearch( maxResults = 0 )
+				keyword = titles( rssSearch( query = "Story 7" ) )
+				category = titles( rssSearch( category = "podcast" ) )
+				limited = titles( rssSearch( category = "podcast", maxResults = 2 ) )
+				range = titles( rssSearch( query = "parse", since = "2024-06-01T07:00:00Z", until = "2024-06-01T10:00:00Z" ) )
+				missing = rssSearch( query = "story unknownword" )
+
+				// Reading the feed again replaces its items
+				rss( urls = feedUrl, index = true )
+				reindexed = rssSearch().indexed
+				""",
+			    context
+			);
+			// @formatter:on
+
+			assertThat( variables.getAsStruct( Key.of( "empty" ) ).getAsArray( Key.of( "items" ) ) ).isEmpty();
+
+			IStruct all = variables.getAsStruct( Key.of( "all" ) );
+			assertThat( all.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 20 );
+			assertThat( all.get( Key.of( "indexed" ) ) ).isEqualTo( 20 );
+			assertThat( ( ( IStruct ) all.getAsArray( Key.of( "items" ) ).get( 0 ) ).getAsString( Key.of( "title" ) ) ).isEqualTo( "Story 0" );
+
+			assertThat( variables.getAsString( Key.of( "keyword" ) ) ).isEqualTo( "Story 7" );
+			assertThat( variables.getAsString( Key.of( "category" ) ) ).isEqualTo( "Story 1,Story 6,Story 11,Story 16" );
+			assertThat( variables.getAsString( Key.of( "limited" ) ) ).isEqualTo( "Story 1,Story 6" );
+			assertThat( variables.getAsString( Key.of( "range" ) ) ).isEqualTo( "Story 2,Story 3,Story 4,Story 5" );
+			assertThat( variables.getAsStruct( Key.of( "missing" ) ).getAsArray( Key.of( "items" ) ) ).isEmpty();
+			assertThat( variables.get( Key.of( "reindexed" ) ) ).isEqualTo( 20 );
+		} finally {
+			Files.deleteIfExists( feed );
+		}
+	}
+
+	@DisplayName( "Test a cached read with index=true indexes its items even when the same read was cached without index" )
+	@Test
+	public void testCachedIndexedRead() throws Exception {
+		Path feed = FeedFixtures.writeRss( Files.createTempFile( "bxrss-search-cache", ".xml" ), 20 );
+		try {
+			variables.put( Key.of( "feedUrl" ), feed.toUri().toString() );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				import java:ortus.boxlang.feed.read.ItemIndex@bxrss;
+
+				ItemIndex.shared().clear()
+				rss( urls = feedUrl, cacheTimeout = 60 )
+				unindexed = rssSearch().indexed
+				indexedRead = rss( urls = feedUrl, cacheTimeout = 60, index = true )
+				indexed = rssSearch().indexed
+				""",
+			    context
+			);
+			// @formatter:on
+
+			assertThat( variables.get( Key.of( "unindexed" ) ) ).isEqualTo( 0 );
+			assertThat( variables.getAsStruct( Key.of( "indexedRead" ) ).getAsStruct( Key.of( "cache" ) ).getAsString( Key.of( "status" ) ) )
+			    .isEqualTo( "miss" );
+			assertThat( variables.get( Key.of( "indexed" ) ) ).isEqualTo( 20 );
+		} finally {
+			Files.deleteIfExists( feed );
+		}
+	}
+
+	@DisplayName( "Test the item index evicts the oldest items beyond its maximum" )
+	@Test
+	public void testEviction() throws Exception {
+		Path feed = FeedFixtures.writeRss( Files.createTempFile( "bxrss-search-evict", ".xml" ), 20 );
+		try {
+			variables.put( Key.of( "feedUrl" ), feed.toUri().toString() );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				import java:ortus.boxlang.feed.read.ItemIndex@bxrss;
+
+				ItemIndex.shared().clear()
+				ItemIndex.shared().setMaxItems( 10 )
+				try {
+					rss( urls = feedUrl, index = true )
+					result = rssSearch( maxResults = 0 )
+					oldest = result.items.last().title
+					category = rssSearch( category = "podcast" ).items.map( ( i ) => i.title ).toList()
+				} finally {
+					ItemIndex.shared().setMaxItems( ItemIndex.DEFAULT_MAX_ITEMS )
+				}
+				""",
+			    context
+			);
+			// @formatter:on
+
+			assertThat( variables.getAsStruct( Key.of( "result" ) ).get( Key.of( "indexed" ) ) ).isEqualTo( 10 );
+			assertThat( variables.getAsString( Key.of( "oldest" ) ) ).isEqualTo( "Story 9" );
+			assertThat( variables.getAsString( Key.of( "category" ) ) ).isEqualTo( "Story 1,Story 6" );
+		} finally {
+			Files.deleteIfExists( feed );
+		}
+	}
+
+}
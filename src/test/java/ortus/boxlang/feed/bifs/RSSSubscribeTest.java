@@ -0,0 +1,98 @@
+package ortus.boxlang.feed.bifs;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedTestServer;
+import ortus.boxlang.feed.WebSubTestHub;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.IStruct;
+
+public class RSSSubscribeTest extends BaseIntegrationTest {
+
+	private static final String TOPIC = "https://example.com/websub/feed.xml";
+
+	@DisplayName( "Test rssSubscribe discovers the hub, and rssWebSubCallback verifies the intent and accepts signed pushes only" )
+	@Test
+	public void testSubscribeVerifyAndPush() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start(); WebSubTestHub hub = WebSubTestHub.start() ) {
+			server.serve( "/feed.xml", WebSubTestHub.feed( hub.url(), TOPIC, "Polled story" ), 1 << 16, 0 );
+			variables.put( Key.of( "feedUrl" ), server.url( "/feed.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				sub = rssSubscribe( url = feedUrl, callback = "https://app.example.com/websub", index = true )
+				""",
+			    context
+			);
+			// @formatter:on
+
+			IStruct sub = variables.getAsStruct( Key.of( "sub" ) );
+			assertThat( sub.getAsString( Key.of( "topic" ) ) ).isEqualTo( TOPIC );
+			assertThat( sub.getAsString( Key.of( "hub" ) ) ).isEqualTo( hub.url() );
+			assertThat( sub.getAsString( Key.of( "state" ) ) ).isEqualTo( "pending" );
+			assertThat( sub ).doesNotContainKey( Key.of( "secret" ) );
+
+			Map<String, String> request = hub.last();
+			assertThat( request.get( "hub.mode" ) ).isEqualTo( "subscribe" );
+			assertThat( request.get( "hub.topic" ) ).isEqualTo( TOPIC );
+			assertThat( request.get( "hub.callback" ) ).isEqualTo( sub.getAsString( Key.of( "callback" ) ) );
+
+			String body = WebSubTestHub.feed( hub.url(), TOPIC, "Pushed websub one", "Pushed websub two" );
+			variables.put( Key.of( "body" ), body );
+			variables.put( Key.of( "signature" ), WebSubTestHub.sign( request.get( "hub.secret" ), body ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				verified = rssWebSubCallback(
+					method = "GET",
+					params = { "subscription": sub.id, "hub.mode": "subscribe", "hub.topic": sub.topic, "hub.challenge": "c-123", "hub.lease_seconds": "3600" }
+				)
+				active = rssSubscriptions().filter( ( s ) => s.id == sub.id ).first()
+
+				pushed = rssWebSubCallback( method = "POST", params = { "subscription": sub.id }, body = body, signature = signature )
+				forged = rssWebSubCallback( method = "POST", params = { "subscription": sub.id }, body = body, signature = "sha256=00ff" )
+				found = rssSearch( query = "pushed websub" ).items.len()
+
+				bye = rssUnsubscribe( url = feedUrl )
+				gone = rssWebSubCallback(
+					method = "GET",
+					params = { "subscription": sub.id, "hub.mode": "unsubscribe", "hub.topic": sub.topic, "hub.challenge": "c-456" }
+				)
+				remaining = rssSubscriptions().filter( ( s ) => s.id == sub.id ).len()
+				""",
+			    context
+			);
+			// @formatter:on
+
+			IStruct verified = variables.getAsStruct( Key.of( "verified" ) );
+			assertThat( verified.get( Key.of( "status" ) ) ).isEqualTo( 200 );
+			assertThat( verified.getAsString( Key.of( "body" ) ) ).isEqualTo( "c-123" );
+
+			IStruct active = variables.getAsStruct( Key.of( "active" ) );
+			assertThat( active.getAsString( Key.of( "state" ) ) ).isEqualTo( "active" );
+			assertThat( active.get( Key.of( "leaseSeconds" ) ) ).isEqualTo( 3600L );
+			assertThat( active.getAsBoolean( Key.of( "pollDue" ) ) ).isFalse();
+
+			IStruct pushed = variables.getAsStruct( Key.of( "pushed" ) );
+			assertThat( pushed.get( Key.of( "status" ) ) ).isEqualTo( 200 );
+			assertThat( pushed.getAsBoolean( Key.of( "accepted" ) ) ).isTrue();
+			assertThat( pushed.get( Key.of( "items" ) ) ).isEqualTo( 2 );
+
+			IStruct forged = variables.getAsStruct( Key.of( "forged" ) );
+			assertThat( forged.get( Key.of( "status" ) ) ).isEqualTo( 200 );
+			assertThat( forged.getAsBoolean( Key.of( "accepted" ) ) ).isFalse();
+
+			assertThat( variables.get( Key.of( "found" ) ) ).isEqualTo( 2 );
+			assertThat( hub.last().get( "hub.mode" ) ).isEqualTo( "unsubscribe" );
+			assertThat( variables.getAsStruct( Key.of( "gone" ) ).getAsString( Key.of( "body" ) ) ).isEqualTo( "c-456" );
+			assertThat( variables.get( Key.of( "remaining" ) ) ).isEqualTo( 0 );
+		}
+	}
+
+}
@@ -1,13 +1,23 @@
 package ortus.boxlang.feed.bifs;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.feed.FeedTestServer;
 import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.types.Array;
 import ortus.boxlang.runtime.types.IStruct;
+import ortus.boxlang.runtime.types.Query;
+import ortus.boxlang.runtime.types.exceptions.BoxValidationException;
 
 public class RSSTest extends BaseIntegrationTest {
 
@@ -256,4 +266,312 @@ public class RSSTest extends BaseIntegrationTest {
 		assertThat( resultStruct.containsKey( "description" ) ).isTrue();
 	}
 
+	@DisplayName( "Test rss bif sortBy orders items by pubdate or updated, or keeps source order" )
+	@Test
+	public void testSortBy() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "sort-order.xml" ) );
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			titles = ( sortBy ) => rss( urls = feedUrl, sortBy = sortBy ).items.map( ( i ) => i.title ).toList()
+			defaultOrder = rss( feedUrl ).items.map( ( i ) => i.title ).toList()
+			pubdateDesc = titles( "pubdate desc" )
+			pubdateAsc = titles( "pubdate asc" )
+			updatedDesc = titles( "updated" )
+			updatedAsc = titles( "updated asc" )
+			sourceOrder = titles( "none" )
+			limited = rss( urls = feedUrl, sortBy = "pubdate asc", maxItems = 2 ).items.map( ( i ) => i.title ).toList()
+			""",
+		    context
+		);
+		// @formatter:on
+
+		assertThat( variables.getAsString( Key.of( "defaultOrder" ) ) ).isEqualTo( "Entry C,Entry B,Entry A" );
+		assertThat( variables.getAsString( Key.of( "pubdateDesc" ) ) ).isEqualTo( "Entry C,Entry B,Entry A" );
+		assertThat( variables.getAsString( Key.of( "pubdateAsc" ) ) ).isEqualTo( "Entry A,Entry B,Entry C" );
+		assertThat( variables.getAsString( Key.of( "updatedDesc" ) ) ).isEqualTo( "Entry A,Entry B,Entry C" );
+		assertThat( variables.getAsString( Key.of( "updatedAsc" ) ) ).isEqualTo( "Entry C,Entry B,Entry A" );
+		assertThat( variables.getAsString( Key.of( "sourceOrder" ) ) ).isEqualTo( "Entry B,Entry A,Entry C" );
+		assertThat( variables.getAsString( Key.of( "limited" ) ) ).isEqualTo( "Entry A,Entry B" );
+	}
+
+	@DisplayName( "Test rss bif rejects an invalid sortBy value" )
+	@Test
+	public void testInvalidSortBy() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "sort-order.xml" ) );
+		assertThrows( BoxValidationException.class, () -> runtime.executeSource( "rss( urls = feedUrl, sortBy = 'title' )", context ) );
+	}
+
+	@DisplayName( "Test rss bif with a declarative filter struct" )
+	@Test
+	public void testDeclarativeFilter() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "filter-items.xml" ) );
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			titles = ( filter ) => rss( urls = feedUrl, filter = filter, sortBy = "none" ).items.map( ( i ) => i.title ).toList()
+			all = titles( {} )
+			podcasts = titles( { hasEnclosure : true } )
+			boxlang = titles( { categories : [ "BOXLANG" ] } )
+			recentByLuis = titles( { since : createDate( 2024, 1, 10 ), author : "luis" } )
+			combined = titles( { titleContains : "episode", until : createDate( 2024, 1, 15 ) } )
+			closure = titles( ( i ) -> i.getTitle().orElse( "" ).findNoCase( "modules" ) > 0 )
+			""",
+		    context
+		);
+		// @formatter:on
+
+		assertThat( variables.getAsString( Key.of( "all" ) ) )
+		    .isEqualTo( "BoxLang 1.0 Released,Podcast Episode 12,Modules Roundup,Podcast Episode 11" );
+		assertThat( variables.getAsString( Key.of( "podcasts" ) ) ).isEqualTo( "Podcast Episode 12,Podcast Episode 11" );
+		assertThat( variables.getAsString( Key.of( "boxlang" ) ) ).isEqualTo( "BoxLang 1.0 Released,Modules Roundup" );
+		assertThat( variables.getAsString( Key.of( "recentByLuis" ) ) ).isEqualTo( "BoxLang 1.0 Released,Modules Roundup" );
+		assertThat( variables.getAsString( Key.of( "combined" ) ) ).isEqualTo( "Podcast Episode 11" );
+		assertThat( variables.getAsString( Key.of( "closure" ) ) ).isEqualTo( "Modules Roundup" );
+	}
+
+	@DisplayName( "Test rss bif rejects unknown declarative filter criteria" )
+	@Test
+	public void testDeclarativeFilterUnknownCriterion() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "filter-items.xml" ) );
+		assertThrows( BoxValidationException.class, () -> runtime.executeSource( "rss( urls = feedUrl, filter = { color : 'red' } )", context ) );
+	}
+
+	@DisplayName( "Test rss bif walks RFC 5005 archive pages until a stop condition" )
+	@Test
+	public void testArchivePaging() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "archive/page-1.xml" ) );
+		// @formatter:off
+		runtime.executeSource(
+		    """
+			walk = ( args ) => {
+				args.urls = feedUrl
+				args.sortBy = "none"
+				args.archive = true
+				var result = rss( argumentCollection = args )
+				return {
+					guids : result.items.map( ( i ) => i.guid ).toList(),
+					pages : result.archive.pagesRead,
+					stoppedBy : result.archive.stoppedBy
+				}
+			}
+			firstPageOnly = rss( urls = feedUrl, sortBy = "none" )
+			everything = walk( {} )
+			limited = walk( { maxItems : 4 } )
+			known = walk( { stopAtGuid : "story-5" } )
+			recent = walk( { stopAtDate : createDate( 2024, 3, 5 ) } )
+			onePage = walk( { maxPages : 1 } )
+			filtered = walk( { maxItems : 2, filter : { titleContains : "3" } } )
+			""",
+		    context
+		);
+		// @formatter:on
+
+		assertThat( variables.getAsStruct( Key.of( "firstPageOnly" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 3 );
+		assertThat( variables.getAsStruct( Key.of( "firstPageOnly" ) ).containsKey( Key.of( "archive" ) ) ).isFalse();
+
+		assertWalk( "everything", "story-9,story-8,story-7,story-6,story-5,story-4,story-3,story-2,story-1", 3, "end" );
+		assertWalk( "limited", "story-9,story-8,story-7,story-6", 2, "maxItems" );
+		assertWalk( "known", "story-9,story-8,story-7,story-6", 2, "guid" );
+		assertWalk( "recent", "story-9,story-8,story-7,story-6,story-5", 2, "date" );
+		assertWalk( "onePage", "story-9,story-8,story-7", 1, "maxPages" );
+		assertWalk( "filtered", "story-3", 3, "end" );
+	}
+
+	@DisplayName( "Test rss bif requests each archive page once" )
+	@Test
+	public void testArchivePagingRequestsEachPageOnce() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			StringBuilder first = new StringBuilder();
+			FeedFixtures.write( first, 3, server.url( "/page-2.xml" ) );
+			FeedTestServer.Route	page1	= server.serve( "/page-1.xml", first.toString(), 16 * 1024, 0 );
+			FeedTestServer.Route	page2	= server.serve( "/page-2.xml", FeedFixtures.rss( 2 ), 16 * 1024, 0 );
+			variables.put( Key.of( "feedUrl" ), server.url( "/page-1.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				result = rss( urls = feedUrl, sortBy = "none", archive = true )
+				""",
+			    context
+			);
+			// @formatter:on
+
+			IStruct result = variables.getAsStruct( Key.of( "result" ) );
+			assertThat( result.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 5 );
+			assertThat( ( ( Number ) result.getAsStruct( Key.of( "archive" ) ).get( Key.of( "pagesRead" ) ) ).intValue() ).isEqualTo( 2 );
+			assertThat( page1.requests() ).isEqualTo( 1L );
+			assertThat( page2.requests() ).isEqualTo( 1L );
+		}
+	}
+
+	@DisplayName( "Test rss bif stops downloading once maxItems unsorted items are read" )
+	@Test
+	public void testEarlyTermination() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			// About 8 MB, served 16 KB every 10 ms: a full download takes several seconds
+			FeedTestServer.Route	large	= server.serve( "/large.xml", FeedFixtures.rss( 20_000 ), 16 * 1024, 10 );
+			FeedTestServer.Route	small	= server.serve( "/small.xml", FeedFixtures.rss( 6 ), 16 * 1024, 0 );
+			server.serve( "/large-filtered.xml", FeedFixtures.rss( 20_000 ), 16 * 1024, 10 );
+			variables.put( Key.of( "largeUrl" ), server.url( "/large.xml" ) );
+			variables.put( Key.of( "filteredUrl" ), server.url( "/large-filtered.xml" ) );
+			variables.put( Key.of( "smallUrl" ), server.url( "/small.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				first = rss( urls = largeUrl, sortBy = "none", maxItems = 5 )
+				filtered = rss( urls = filteredUrl, sortBy = "none", maxItems = 2, filter = { hasEnclosure : true } )
+				whole = rss( urls = smallUrl, sortBy = "none", maxItems = 10 )
+				sorted = rss( urls = smallUrl, maxItems = 2 )
+				""",
+			    context
+			);
+			// @formatter:on
+
+			IStruct	first	= variables.getAsStruct( Key.of( "first" ) );
+			IStruct	stats	= first.getAsStruct( Key.of( "stats" ) );
+			assertThat( first.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 5 );
+			assertThat( stats.getAsBoolean( Key.of( "stoppedEarly" ) ) ).isTrue();
+			assertThat( ( ( Number ) stats.get( Key.of( "bytesRead" ) ) ).longValue() ).isGreaterThan( 0L );
+			assertThat( ( ( Number ) stats.get( Key.of( "bytesRead" ) ) ).longValue() ).isLessThan( large.size() / 10L );
+
+			// The server saw the client go away long before the end of the document
+			assertThat( large.awaitResponse( 10_000 ) ).isTrue();
+			assertThat( large.aborted() ).isTrue();
+			assertThat( large.bytesSent() ).isLessThan( large.size() / 2L );
+			// Downloaded once, even without extension fields to detect
+			assertThat( large.requests() ).isEqualTo( 1L );
+
+			IStruct filtered = variables.getAsStruct( Key.of( "filtered" ) );
+			assertThat( filtered.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 2 );
+			assertThat( filtered.getAsStruct( Key.of( "stats" ) ).getAsBoolean( Key.of( "stoppedEarly" ) ) ).isTrue();
+
+			// A feed smaller than the limit is read to its end
+			IStruct whole = variables.getAsStruct( Key.of( "whole" ) );
+			assertThat( whole.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 6 );
+			assertThat( whole.getAsStruct( Key.of( "stats" ) ).getAsBoolean( Key.of( "stoppedEarly" ) ) ).isFalse();
+			assertThat( ( ( Number ) whole.getAsStruct( Key.of( "stats" ) ).get( Key.of( "bytesRead" ) ) ).longValue() ).isEqualTo( ( long ) small.size() );
+
+			// Sorted reads need every item and are not metered
+			assertThat( variables.getAsStruct( Key.of( "sorted" ) ).containsKey( Key.of( "stats" ) ) ).isFalse();
+		}
+	}
+
+	@DisplayName( "Test rss bif skips a failing feed in an unsorted read with maxItems" )
+	@Test
+	public void testEarlyTerminationSkipsFailingFeed() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			FeedTestServer.Route failing = server.serve( "/failing.xml", FeedFixtures.rss( 4 ), 16 * 1024, 0 ).setErrorRate( 1 );
+			server.serve( "/good.xml", FeedFixtures.rss( 6 ), 16 * 1024, 0 );
+			variables.put( Key.of( "failingUrl" ), server.url( "/failing.xml" ) );
+			variables.put( Key.of( "goodUrl" ), server.url( "/good.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				result = rss( urls = [ failingUrl, goodUrl ], sortBy = "none", maxItems = 5, circuitBreaker = false )
+				""",
+			    context
+			);
+			// @formatter:on
+
+			IStruct	result	= variables.getAsStruct( Key.of( "result" ) );
+			IStruct	errors	= result.getAsStruct( Key.of( "stats" ) ).getAsStruct( Key.of( "errors" ) );
+			assertThat( result.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 5 );
+			assertThat( failing.errors() ).isEqualTo( 1L );
+			assertThat( errors.size() ).isEqualTo( 1 );
+			assertThat( errors.getAsString( Key.of( server.url( "/failing.xml" ) ) ) ).contains( "HTTP 500" );
+		}
+	}
+
+	@DisplayName( "Test rss bif shares repeated values across items with dedupe" )
+	@Test
+	public void testDedupe() throws Exception {
+		Path feed = FeedFixtures.writeRss( Files.createTempFile( "bxrss-dedupe", ".xml" ), 12 );
+		try {
+			variables.put( Key.of( "feedUrl" ), feed.toUri().toString() );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				perRead = rss( urls = feedUrl, sortBy = "none", dedupe = "read" ).items
+				shared = rss( urls = feedUrl, sortBy = "none", dedupe = "global" ).items
+				sharedAgain = rss( urls = feedUrl, sortBy = "none", dedupe = "global" ).items
+				asQuery = rss( urls = feedUrl, sortBy = "none", dedupe = "read", itemFormat = "query" ).items
+				""",
+			    context
+			);
+			// @formatter:on
+
+			// Items 0 and 3 share their author, category and enclosure type
+			Array	perRead	= variables.getAsArray( Key.of( "perRead" ) );
+			IStruct	first	= ( IStruct ) perRead.get( 0 );
+			IStruct	fourth	= ( IStruct ) perRead.get( 3 );
+			assertThat( fourth.get( Key.of( "author" ) ) ).isSameInstanceAs( first.get( Key.of( "author" ) ) );
+			assertThat( fourth.get( Key.of( "channelTitle" ) ) ).isSameInstanceAs( first.get( Key.of( "channelTitle" ) ) );
+			assertThat( enclosureType( fourth ) ).isSameInstanceAs( enclosureType( first ) );
+			IStruct sixth = ( IStruct ) perRead.get( 5 );
+			assertThat( ( ( List<?> ) sixth.get( Key.of( "categories" ) ) ).get( 0 ) )
+			    .isSameInstanceAs( ( ( List<?> ) first.get( Key.of( "categories" ) ) ).get( 0 ) );
+
+			// The global pool shares the values across reads
+			IStruct	fromFirstRead	= ( IStruct ) variables.getAsArray( Key.of( "shared" ) ).get( 0 );
+			IStruct	fromSecondRead	= ( IStruct ) variables.getAsArray( Key.of( "sharedAgain" ) ).get( 0 );
+			assertThat( fromSecondRead.get( Key.of( "author" ) ) ).isSameInstanceAs( fromFirstRead.get( Key.of( "author" ) ) );
+
+			Query query = ( Query ) variables.get( Key.of( "asQuery" ) );
+			assertThat( query.getCell( Key.of( "author" ), 3 ) ).isSameInstanceAs( query.getCell( Key.of( "author" ), 0 ) );
+
+			assertThrows( BoxValidationException.class, () -> runtime.executeSource( "rss( urls = feedUrl, dedupe = 'always' )", context ) );
+		} finally {
+			Files.deleteIfExists( feed );
+		}
+	}
+
+	@DisplayName( "Test rss bif serves an expired cached result while a single background refresh runs" )
+	@Test
+	public void testStaleWhileRevalidate() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			FeedTestServer.Route route = server.serve( "/swr.xml", FeedFixtures.rss( 4 ), 64 * 1024, 0 );
+			variables.put( Key.of( "feedUrl" ), server.url( "/swr.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+				read = () => rss( urls = feedUrl, mediaRss = true, cacheTimeout = 1, staleWhileRevalidate = 60 )
+				first = read()
+				second = read()
+				""",
+			    context
+			);
+			// @formatter:on
+			assertThat( variables.getAsStruct( Key.of( "first" ) ).getAsStruct( Key.of( "cache" ) ).getAsString( Key.of( "status" ) ) ).isEqualTo( "miss" );
+			assertThat( variables.getAsStruct( Key.of( "second" ) ).getAsStruct( Key.of( "cache" ) ).getAsString( Key.of( "status" ) ) ).isEqualTo( "hit" );
+			assertThat( variables.getAsStruct( Key.of( "second" ) ).getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 4 );
+			assertThat( route.requests() ).isEqualTo( 1 );
+
+			// Once expired, every caller gets the stale result at once while the slow upstream is read a single time
+			route.setLatency( 500 );
+			Thread.sleep( 1_100 );
+			runtime.executeSource( "statuses = [ read(), read(), read(), read() ].map( ( r ) => r.cache.status & ':' & r.items.size() )", context );
+			assertThat( variables.getAsArray( Key.of( "statuses" ) ) ).containsExactly( "stale:4", "stale:4", "stale:4", "stale:4" );
+
+			String status = "";
+			for ( int i = 0; i < 50 && !status.equals( "hit" ); i++ ) {
+				Thread.sleep( 100 );
+				runtime.executeSource( "status = read().cache.status", context );
+				status = variables.getAsString( Key.of( "status" ) );
+			}
+			assertThat( status ).isEqualTo( "hit" );
+			assertThat( route.requests() ).isEqualTo( 2 );
+		}
+	}
+
+	private static Object enclosureType( IStruct item ) {
+		return ( ( IStruct ) ( ( List<?> ) item.get( Key.of( "enclosures" ) ) ).get( 0 ) ).get( Key.of( "type" ) );
+	}
+
+	private void assertWalk( String name, String guids, int pages, String stoppedBy ) {
+		IStruct walk = variables.getAsStruct( Key.of( name ) );
+		assertThat( walk.getAsString( Key.of( "guids" ) ) ).isEqualTo( guids );
+		assertThat( walk.getAsInteger( Key.of( "pages" ) ) ).isEqualTo( pages );
+		assertThat( walk.getAsString( Key.of( "stoppedBy" ) ) ).isEqualTo( stoppedBy );
+	}
+
 }
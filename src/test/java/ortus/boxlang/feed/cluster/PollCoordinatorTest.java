@@ -0,0 +1,165 @@
+package ortus.boxlang.feed.cluster;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.runtime.types.IStruct;
+
+public class PollCoordinatorTest {
+
+	private static final String	FEED	= "feed-fingerprint";
+	private static final long	REFRESH	= 60;
+	private static final long	LEASE	= 180;
+
+	/**
+	 * A clock that only moves when told to
+	 */
+	private static final class FakeClock extends Clock {
+
+		private Instant now = Instant.parse( "2026-01-01T00:00:00Z" );
+
+		void advance( Duration duration ) {
+			now = now.plus( duration );
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone( ZoneId zone ) {
+			return this;
+		}
+	}
+
+	/**
+	 * An in-memory cache shared by the simulated nodes, expiring its entries like a cache provider
+	 */
+	private static final class MemoryStore implements SharedStore {
+
+		private record Entry( Object value, Instant expiresAt ) {
+		}
+
+		private final Map<String, Entry>	entries	= new ConcurrentHashMap<>();
+		private final Clock					clock;
+
+		MemoryStore( Clock clock ) {
+			this.clock = clock;
+		}
+
+		@Override
+		public Object get( String key ) {
+			Entry entry = entries.get( key );
+			return entry == null || !clock.instant().isBefore( entry.expiresAt() ) ? null : entry.value();
+		}
+
+		@Override
+		public void set( String key, Object value, long ttlSeconds ) {
+			entries.put( key, new Entry( value, clock.instant().plusSeconds( ttlSeconds ) ) );
+		}
+
+		@Override
+		public void remove( String key ) {
+			entries.remove( key );
+		}
+	}
+
+	private FakeClock		clock;
+	private PollCoordinator	nodeA;
+	private PollCoordinator	nodeB;
+	private PollCoordinator	nodeC;
+
+	@BeforeEach
+	public void setup() {
+		clock = new FakeClock();
+		MemoryStore cache = new MemoryStore( clock );
+		nodeA	= new PollCoordinator( cache, "node-a", clock );
+		nodeB	= new PollCoordinator( cache, "node-b", clock );
+		nodeC	= new PollCoordinator( cache, "node-c", clock );
+	}
+
+	@DisplayName( "Test a single node owns the read of a feed and the others use its published result" )
+	@Test
+	public void testOneNodeReads() {
+		assertThat( nodeA.claim( FEED, REFRESH, LEASE ).status() ).isEqualTo( PollCoordinator.OWNER );
+		// Nothing published yet: the other nodes read on their own, without taking the lease
+		assertThat( nodeB.claim( FEED, REFRESH, LEASE ).status() ).isEqualTo( PollCoordinator.LOCAL );
+		assertThat( nodeA.owner( FEED ) ).isEqualTo( "node-a" );
+
+		nodeA.publish( FEED, "items of node-a", REFRESH, LEASE );
+
+		for ( PollCoordinator node : new PollCoordinator[] { nodeA, nodeB, nodeC } ) {
+			PollCoordinator.Claim claim = node.claim( FEED, REFRESH, LEASE );
+			assertThat( claim.status() ).isEqualTo( PollCoordinator.SHARED );
+			assertThat( claim.result() ).isEqualTo( "items of node-a" );
+			assertThat( claim.publishedBy() ).isEqualTo( "node-a" );
+		}
+		IStruct struct = nodeB.claim( FEED, REFRESH, LEASE ).toStruct();
+		assertThat( struct.get( "node" ) ).isEqualTo( "node-b" );
+		assertThat( struct.get( "publishedAt" ) ).isEqualTo( "2026-01-01T00:00:00Z" );
+	}
+
+	@DisplayName( "Test the other nodes serve the stale result while the owner holds its lease, and the owner refreshes it" )
+	@Test
+	public void testStaleUntilOwnerRefreshes() {
+		nodeA.claim( FEED, REFRESH, LEASE );
+		nodeA.publish( FEED, "first", REFRESH, LEASE );
+		clock.advance( Duration.ofSeconds( REFRESH ) );
+
+		PollCoordinator.Claim stale = nodeB.claim( FEED, REFRESH, LEASE );
+		assertThat( stale.status() ).isEqualTo( PollCoordinator.STALE );
+		assertThat( stale.result() ).isEqualTo( "first" );
+
+		assertThat( nodeA.claim( FEED, REFRESH, LEASE ).isOwner() ).isTrue();
+		nodeA.publish( FEED, "second", REFRESH, LEASE );
+		assertThat( nodeC.claim( FEED, REFRESH, LEASE ).result() ).isEqualTo( "second" );
+	}
+
+	@DisplayName( "Test the lease of an owner that stops refreshing expires and another node takes over" )
+	@Test
+	public void testLeaseExpires() {
+		nodeA.claim( FEED, REFRESH, LEASE );
+		nodeA.publish( FEED, "first", REFRESH, LEASE );
+
+		clock.advance( Duration.ofSeconds( LEASE - 1 ) );
+		assertThat( nodeB.claim( FEED, REFRESH, LEASE ).status() ).isEqualTo( PollCoordinator.STALE );
+
+		clock.advance( Duration.ofSeconds( 1 ) );
+		PollCoordinator.Claim takeover = nodeB.claim( FEED, REFRESH, LEASE );
+		assertThat( takeover.isOwner() ).isTrue();
+		assertThat( takeover.result() ).isEqualTo( "first" );
+		assertThat( nodeA.owner( FEED ) ).isEqualTo( "node-b" );
+		assertThat( nodeA.claim( FEED, REFRESH, LEASE ).status() ).isEqualTo( PollCoordinator.STALE );
+	}
+
+	@DisplayName( "Test a failed read drops the lease at once, and only its owner can drop it" )
+	@Test
+	public void testReleaseOnFailure() {
+		assertThat( nodeA.claim( FEED, REFRESH, LEASE ).isOwner() ).isTrue();
+
+		nodeB.release( FEED );
+		assertThat( nodeA.owner( FEED ) ).isEqualTo( "node-a" );
+
+		nodeA.release( FEED );
+		assertThat( nodeA.owner( FEED ) ).isNull();
+		assertThat( nodeC.claim( FEED, REFRESH, LEASE ).isOwner() ).isTrue();
+	}
+
+}
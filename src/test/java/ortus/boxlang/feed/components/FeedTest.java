@@ -11,6 +11,8 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.feed.FeedTestServer;
 import ortus.boxlang.runtime.scopes.Key;
 import ortus.boxlang.runtime.types.IStruct;
 
@@ -136,6 +138,161 @@ public class FeedTest extends BaseIntegrationTest {
 		assertThat( variables.getAsBoolean( Key.of( "containsTitle" ) ) ).isTrue();
 	}
 
+	@Test
+	@DisplayName( "Can create JSON Feed 1.1" )
+	public void testCreateJsonFeed() throws IOException {
+		File tempFile = File.createTempFile( "test-feed-", ".json" );
+		tempFile.deleteOnExit();
+		variables.put( Key.of( "filePath" ), tempFile.getAbsolutePath() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		    properties = {
+		        title: "Test JSON Feed",
+		        description: "A \"quoted\" feed",
+		        link: "https://example.com",
+		        feedUrl: "https://example.com/feed.json"
+		    };
+
+		    data = [
+		        {
+		            title: "First Post",
+		            link: "https://example.com/post1",
+		            content: "<p>Hello</p>",
+		            description: "Hello",
+		            author: "Jane Doe",
+		            publishedDate: createDateTime( 2024, 1, 1, 10, 0, 0 ),
+		            category: "BoxLang, JSON"
+		        },
+		        {
+		            title: "Second Post",
+		            description: "No link"
+		        }
+		    ];
+
+		    bx:feed action="create" properties="#properties#" data="#data#" feedType="json_1.1" xmlVar="jsonFeed" outputFile="#filePath#" overwrite=true;
+		    feed = deserializeJSON( jsonFeed );
+		    fileMatches = fileRead( filePath ) == jsonFeed;
+
+		    // Query data with a column map
+		    posts = queryNew( "headline,url,body", "varchar,varchar,varchar", [ { headline: "Mapped", url: "https://example.com/mapped", body: "Mapped body" } ] );
+		    columnMap = { title: "headline", link: "url", description: "body" };
+		    bx:feed action="create" properties=properties data=posts columnMap=columnMap feedType="json_1.1" xmlVar="queryJson";
+		    mapped = deserializeJSON( queryJson ).items[ 1 ];
+		    """,
+		    context
+		);
+		// @formatter:on
+
+		IStruct feed = variables.getAsStruct( Key.of( "feed" ) );
+		assertThat( feed.getAsString( Key.of( "version" ) ) ).isEqualTo( "https://jsonfeed.org/version/1.1" );
+		assertThat( feed.getAsString( Key.of( "title" ) ) ).isEqualTo( "Test JSON Feed" );
+		assertThat( feed.getAsString( Key.of( "description" ) ) ).isEqualTo( "A \"quoted\" feed" );
+		assertThat( feed.getAsString( Key.of( "home_page_url" ) ) ).isEqualTo( "https://example.com" );
+		assertThat( feed.getAsString( Key.of( "feed_url" ) ) ).isEqualTo( "https://example.com/feed.json" );
+
+		var		items	= feed.getAsArray( Key.of( "items" ) );
+		IStruct	first	= ( IStruct ) items.get( 0 );
+		IStruct	second	= ( IStruct ) items.get( 1 );
+		assertThat( items.size() ).isEqualTo( 2 );
+		assertThat( first.getAsString( Key.of( "id" ) ) ).isEqualTo( "https://example.com/post1" );
+		assertThat( first.getAsString( Key.of( "content_html" ) ) ).isEqualTo( "<p>Hello</p>" );
+		assertThat( first.getAsString( Key.of( "summary" ) ) ).isEqualTo( "Hello" );
+		assertThat( first.getAsString( Key.of( "date_published" ) ) ).startsWith( "2024-01-01T10:00:00" );
+		assertThat( first.getAsArray( Key.of( "tags" ) ) ).containsExactly( "BoxLang", "JSON" );
+		assertThat( ( ( IStruct ) first.getAsArray( Key.of( "authors" ) ).get( 0 ) ).getAsString( Key.of( "name" ) ) ).isEqualTo( "Jane Doe" );
+		assertThat( second.getAsString( Key.of( "id" ) ) ).isEqualTo( "2" );
+		assertThat( second.getAsString( Key.of( "content_html" ) ) ).isEqualTo( "No link" );
+		assertThat( second.containsKey( Key.of( "url" ) ) ).isFalse();
+
+		assertThat( variables.getAsBoolean( Key.of( "fileMatches" ) ) ).isTrue();
+
+		IStruct mapped = variables.getAsStruct( Key.of( "mapped" ) );
+		assertThat( mapped.getAsString( Key.of( "title" ) ) ).isEqualTo( "Mapped" );
+		assertThat( mapped.getAsString( Key.of( "url" ) ) ).isEqualTo( "https://example.com/mapped" );
+		assertThat( mapped.getAsString( Key.of( "content_html" ) ) ).isEqualTo( "Mapped body" );
+	}
+
+	@Test
+	@DisplayName( "Can create several feed types from one pass over the data" )
+	public void testCreateMultipleFeedTypes() throws IOException {
+		File	rssFile		= File.createTempFile( "test-feed-", ".rss" );
+		File	atomFile	= File.createTempFile( "test-feed-", ".atom" );
+		rssFile.deleteOnExit();
+		atomFile.deleteOnExit();
+		variables.put( Key.of( "rssPath" ), rssFile.getAbsolutePath() );
+		variables.put( Key.of( "atomPath" ), atomFile.getAbsolutePath() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		    import bxModules.bxrss.models.FeedUtil;
+
+		    properties = { title: "Multi Feed", description: "One pass", link: "https://example.com" };
+		    posts = queryNew( "headline,url,body,tags,posted", "varchar,varchar,varchar,varchar,timestamp", [
+		        { headline: "First & Best", url: "https://example.com/1", body: "<p>One</p>", tags: "BoxLang, Java", posted: createDateTime( 2024, 1, 1, 10, 0, 0 ) },
+		        { headline: "Second", url: "https://example.com/2", body: "Two", tags: "", posted: createDateTime( 2024, 1, 2, 10, 0, 0 ) }
+		    ] );
+		    columnMap = { title: "headline", link: "url", description: "body", category: "tags", publishedDate: "posted" };
+
+		    jsonPath = atomPath & ".json";
+		    bx:feed action="create" properties=properties data=posts columnMap=columnMap feedType="rss_2.0, atom_1.0, json_1.1"
+		        xmlVar="rssXml,atomXml,jsonDoc" outputFile=[ rssPath, atomPath, jsonPath ] overwrite=true result="created";
+
+		    // Each format matches a single-format creation
+		    bx:feed action="create" properties=properties data=posts columnMap=columnMap feedType="rss_2.0" xmlVar="rssOnly";
+		    bx:feed action="create" properties=properties data=posts columnMap=columnMap feedType="atom_1.0" xmlVar="atomOnly";
+		    bx:feed action="create" properties=properties data=posts columnMap=columnMap feedType="json_1.1" xmlVar="jsonOnly";
+		    sameRss = rssXml == rssOnly;
+		    sameAtom = atomXml == atomOnly;
+		    sameJson = jsonDoc == jsonOnly;
+		    rssFileMatches = fileRead( rssPath ) == rssXml;
+		    atomFileMatches = fileRead( atomPath ) == atomXml;
+		    feedKeys = structKeyArray( created.feeds ).toList();
+
+		    util = FeedUtil.createFeed( properties = properties, data = posts, columnMap = columnMap, feedType = "atom_1.0,rss_2.0", cache = true );
+		    again = FeedUtil.createFeed( properties = properties, data = posts, columnMap = columnMap, feedType = "atom_1.0,rss_2.0", cache = true );
+
+		    try {
+		        bx:feed action="create" properties=properties data=posts feedType="rss_2.0,atom_1.0" xmlVar="onlyOne";
+		        mismatch = "";
+		    } catch( InvalidArgument e ) {
+		        mismatch = e.message;
+		    }
+		    """,
+		    context
+		);
+		// @formatter:on
+
+		File jsonFile = new File( atomFile.getAbsolutePath() + ".json" );
+		jsonFile.deleteOnExit();
+
+		assertThat( variables.getAsBoolean( Key.of( "sameRss" ) ) ).isTrue();
+		assertThat( variables.getAsBoolean( Key.of( "sameAtom" ) ) ).isTrue();
+		assertThat( variables.getAsBoolean( Key.of( "sameJson" ) ) ).isTrue();
+		assertThat( variables.getAsBoolean( Key.of( "rssFileMatches" ) ) ).isTrue();
+		assertThat( variables.getAsBoolean( Key.of( "atomFileMatches" ) ) ).isTrue();
+		assertThat( jsonFile.exists() ).isTrue();
+		assertThat( variables.getAsString( Key.of( "rssXml" ) ) ).contains( "<rss" );
+		assertThat( variables.getAsString( Key.of( "rssXml" ) ) ).contains( "<category>Java</category>" );
+		assertThat( variables.getAsString( Key.of( "atomXml" ) ) ).contains( "<feed" );
+		assertThat( variables.getAsString( Key.of( "jsonDoc" ) ) ).contains( "\"tags\":[\"BoxLang\",\"Java\"]" );
+		assertThat( variables.getAsString( Key.of( "feedKeys" ) ) ).isEqualTo( "rss_2.0,atom_1.0,json_1.1" );
+
+		IStruct	util	= variables.getAsStruct( Key.of( "util" ) );
+		IStruct	again	= variables.getAsStruct( Key.of( "again" ) );
+		assertThat( util.getAsString( Key.of( "xml" ) ) ).contains( "<feed" );
+		assertThat( util.getAsBoolean( Key.of( "cached" ) ) ).isFalse();
+		assertThat( again.getAsBoolean( Key.of( "cached" ) ) ).isTrue();
+		assertThat( again.getAsStruct( Key.of( "feeds" ) ).getAsStruct( Key.of( "rss_2.0" ) ).getAsString( Key.of( "etag" ) ) )
+		    .isEqualTo( util.getAsStruct( Key.of( "feeds" ) ).getAsStruct( Key.of( "rss_2.0" ) ).getAsString( Key.of( "etag" ) ) );
+		assertThat( again.getAsString( Key.of( "etag" ) ) ).isNotEqualTo(
+		    again.getAsStruct( Key.of( "feeds" ) ).getAsStruct( Key.of( "rss_2.0" ) ).getAsString( Key.of( "etag" ) ) );
+
+		assertThat( variables.getAsString( Key.of( "mismatch" ) ) ).contains( "one target per feed type" );
+	}
+
 	@Test
 	@DisplayName( "Can write feed to output file" )
 	public void testWriteFeedToFile() throws IOException {
@@ -256,6 +413,48 @@ public class FeedTest extends BaseIntegrationTest {
 		assertThat( variables.getAsBoolean( Key.of( "containsEscaped" ) ) ).isTrue();
 	}
 
+	@Test
+	@DisplayName( "Can write item bodies as CDATA sections" )
+	public void testCdata() throws IOException {
+		File tempFile = File.createTempFile( "test-feed-", ".xml" );
+		tempFile.deleteOnExit();
+		variables.put( Key.of( "filePath" ), tempFile.getAbsolutePath() );
+		variables.put( Key.of( "fileUrl" ), tempFile.toURI().toString() );
+
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		    properties = { title: "CDATA Feed", description: "Raw HTML", link: "https://example.com" };
+		    data = [
+		        { title: "Code & More", link: "https://example.com/1", description: "<p>Arrays: a[b[0]]>1 & <b>bold</b></p>" },
+		        { title: "Plain", link: "https://example.com/2", description: "No markup" }
+		    ];
+
+		    bx:feed action="create" properties=properties data=data cdata=true xmlVar="rssXml" outputFile=filePath overwrite=true;
+		    bx:feed action="create" properties=properties data=data feedType="atom_1.0" cdata=true xmlVar="atomXml";
+		    bx:feed action="create" properties=properties data=data escapeChars=true cdata=true xmlVar="escapedXml";
+
+		    // Readers get the original HTML back
+		    readBack = rss( urls = fileUrl, sortBy = "none" ).items.map( ( i ) => i.description );
+		    """,
+		    context
+		);
+		// @formatter:on
+
+		String rssXml = variables.getAsString( Key.of( "rssXml" ) );
+		assertThat( rssXml ).contains( "<description><![CDATA[<p>Arrays: a[b[0]]]]><![CDATA[>1 & <b>bold</b></p>]]></description>" );
+		assertThat( rssXml ).contains( "<description><![CDATA[No markup]]></description>" );
+		// The titles and the channel description are still escaped text
+		assertThat( rssXml ).contains( "<title>Code &amp; More</title>" );
+		assertThat( rssXml ).contains( "<description>Raw HTML</description>" );
+
+		assertThat( variables.getAsString( Key.of( "atomXml" ) ) ).contains( "<![CDATA[<p>Arrays: a[b[0]]]]><![CDATA[>1 & <b>bold</b></p>]]>" );
+		assertThat( variables.getAsString( Key.of( "escapedXml" ) ) ).contains( "<![CDATA[&lt;p&gt;Arrays: a[b[0]]&gt;1 &amp; &lt;b&gt;bold&lt;/b&gt;&lt;/p&gt;]]>" );
+
+		assertThat( variables.getAsArray( Key.of( "readBack" ) ) )
+		    .containsExactly( "<p>Arrays: a[b[0]]>1 & <b>bold</b></p>", "No markup" ).inOrder();
+	}
+
 	@Test
 	@DisplayName( "Read action fails without source attribute" )
 	public void testReadWithoutSource() {
@@ -698,4 +897,119 @@ public class FeedTest extends BaseIntegrationTest {
 		assertThat( variables.getAsBoolean( Key.of( "hasRegularFields" ) ) ).isTrue();
 	}
 
+	@Test
+	@DisplayName( "Can output items as a real query with queryFormat" )
+	public void testReadWithQueryFormat() {
+		variables.put( Key.of( "feedUrl" ), fixtureUrl( "filter-items.xml" ) );
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		    bx:feed action="read" source=feedUrl query="items" queryFormat="query" sortBy="none";
+
+		    isItemsQuery = isQuery( items );
+		    rowCount = items.recordCount;
+		    firstTitle = items.title[ 1 ];
+		    secondEnclosureType = items.enclosureType[ 2 ];
+		    firstCategories = items.categories[ 1 ];
+		    hasPubdateColumn = queryColumnExists( items, "pubdate" );
+		    """,
+		    context
+		);
+		// @formatter:on
+
+		assertThat( variables.getAsBoolean( Key.of( "isItemsQuery" ) ) ).isTrue();
+		assertThat( variables.getAsInteger( Key.of( "rowCount" ) ) ).isEqualTo( 4 );
+		assertThat( variables.getAsString( Key.of( "firstTitle" ) ) ).isEqualTo( "BoxLang 1.0 Released" );
+		assertThat( variables.getAsString( Key.of( "secondEnclosureType" ) ) ).isEqualTo( "audio/mpeg" );
+		assertThat( variables.getAsString( Key.of( "firstCategories" ) ) ).isEqualTo( "Release,BoxLang" );
+		assertThat( variables.getAsBoolean( Key.of( "hasPubdateColumn" ) ) ).isTrue();
+	}
+
+	@Test
+	@DisplayName( "Can serve a created feed from the generated-feed cache with ETag and Last-Modified" )
+	public void testCreateWithCache() {
+		// @formatter:off
+		runtime.executeSource(
+		    """
+		    properties = { title: "Cached Feed", description: "A cached feed", link: "https://example.com" };
+		    data = [
+		        { title: "First Post", link: "https://example.com/post1", description: "First", updated: createDateTime( 2024, 1, 1, 10, 0, 0 ) },
+		        { title: "Second Post", link: "https://example.com/post2", description: "Second", updated: createDateTime( 2024, 1, 2, 10, 0, 0 ) }
+		    ];
+
+		    bx:feed action="create" properties=properties data=data cache=true result="first";
+		    bx:feed action="create" properties=properties data=data cache=true result="second" xmlVar="secondXml";
+
+		    data.append( { title: "Third Post", link: "https://example.com/post3", description: "Third", updated: createDateTime( 2024, 1, 3, 10, 0, 0 ) } );
+		    bx:feed action="create" properties=properties data=data cache=true result="third";
+
+		    // Data without an updated field is fingerprinted by content
+		    plain = [ { title: "Plain", link: "https://example.com/plain", description: "No updated field" } ];
+		    bx:feed action="create" properties=properties data=plain cache=true result="plainFirst";
+		    plain[ 1 ].title = "Plain (edited)";
+		    bx:feed action="create" properties=properties data=plain cache=true result="plainSecond";
+		    """,
+		    context
+		);
+		// @formatter:on
+
+		IStruct	first	= variables.getAsStruct( Key.of( "first" ) );
+		IStruct	second	= variables.getAsStruct( Key.of( "second" ) );
+		IStruct	third	= variables.getAsStruct( Key.of( "third" ) );
+
+		assertThat( first.getAsBoolean( Key.of( "cached" ) ) ).isFalse();
+		assertThat( second.getAsBoolean( Key.of( "cached" ) ) ).isTrue();
+		assertThat( second.getAsString( Key.of( "etag" ) ) ).isEqualTo( first.getAsString( Key.of( "etag" ) ) );
+		assertThat( second.getAsString( Key.of( "etag" ) ) ).startsWith( "\"" );
+		assertThat( second.getAsString( Key.of( "lastModified" ) ) ).isEqualTo( first.getAsString( Key.of( "lastModified" ) ) );
+		assertThat( second.getAsString( Key.of( "lastModified" ) ) ).endsWith( "GMT" );
+		assertThat( variables.getAsString( Key.of( "secondXml" ) ) ).contains( "Second Post" );
+
+		assertThat( third.getAsBoolean( Key.of( "cached" ) ) ).isFalse();
+		assertThat( third.getAsString( Key.of( "etag" ) ) ).isNotEqualTo( first.getAsString( Key.of( "etag" ) ) );
+		assertThat( third.getAsString( Key.of( "lastModified" ) ) ).isNotEqualTo( first.getAsString( Key.of( "lastModified" ) ) );
+
+		assertThat( variables.getAsStruct( Key.of( "plainSecond" ) ).getAsBoolean( Key.of( "cached" ) ) ).isFalse();
+		assertThat( variables.getAsStruct( Key.of( "plainSecond" ) ).getAsString( Key.of( "etag" ) ) )
+		    .isNotEqualTo( variables.getAsStruct( Key.of( "plainFirst" ) ).getAsString( Key.of( "etag" ) ) );
+	}
+
+	@Test
+	@DisplayName( "Can read a feed once and share the result through a cluster cache" )
+	public void testReadWithClusterCache() throws IOException {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			FeedTestServer.Route route = server.serve( "/cluster.xml", FeedFixtures.rss( 5 ), 1 << 16, 0 );
+			variables.put( Key.of( "feedUrl" ), server.url( "/cluster.xml" ) );
+			// @formatter:off
+			runtime.executeSource(
+			    """
+			    bx:feed action="read" source=feedUrl cluster="default" clusterRefresh=60 mediaRss=true result="first";
+			    bx:feed action="read" source=feedUrl cluster="default" clusterRefresh=60 mediaRss=true result="second";
+			    second.items[ 1 ].title = "Changed by the caller";
+			    bx:feed action="read" source=feedUrl cluster="default" clusterRefresh=60 mediaRss=true result="third";
+			    """,
+			    context
+			);
+			// @formatter:on
+
+			IStruct	first	= variables.getAsStruct( Key.of( "first" ) );
+			IStruct	second	= variables.getAsStruct( Key.of( "second" ) );
+			IStruct	third	= variables.getAsStruct( Key.of( "third" ) );
+			assertThat( first.getAsStruct( Key.of( "cluster" ) ).getAsString( Key.of( "status" ) ) ).isEqualTo( "owner" );
+			assertThat( second.getAsStruct( Key.of( "cluster" ) ).getAsString( Key.of( "status" ) ) ).isEqualTo( "shared" );
+			assertThat( second.getAsArray( Key.of( "items" ) ).size() ).isEqualTo( 5 );
+			assertThat( ( ( IStruct ) third.getAsArray( Key.of( "items" ) ).get( 0 ) ).getAsString( Key.of( "title" ) ) ).isEqualTo( "Story 0" );
+			assertThat( route.requests() ).isEqualTo( 1L );
+		}
+
+		assertThrows( Exception.class, () -> {
+			runtime.executeSource(
+			    """
+			    bx:feed action="read" source="https://example.com/feed.xml" cluster="noSuchCache" result="missing";
+			    """,
+			    context
+			);
+		} );
+	}
+
 }
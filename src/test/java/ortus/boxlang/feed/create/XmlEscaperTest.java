@@ -0,0 +1,43 @@
+package ortus.boxlang.feed.create;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class XmlEscaperTest {
+
+	@DisplayName( "Test a value without special characters is returned as is" )
+	@Test
+	public void testUnchanged() {
+		String value = "Plain text, with accents (é) and an emoji 😀\ttab\nline";
+		assertThat( XmlEscaper.escape( value ) ).isSameInstanceAs( value );
+		assertThat( XmlEscaper.escape( "" ) ).isSameInstanceAs( "" );
+		assertThat( XmlEscaper.escape( null ) ).isNull();
+	}
+
+	@DisplayName( "Test the special characters become entities and the control characters numeric references" )
+	@Test
+	public void testEscapes() {
+		assertThat( XmlEscaper.escape( "<p class=\"x\">Tom & Jerry's</p>" ) )
+		    .isEqualTo( "&lt;p class=&quot;x&quot;&gt;Tom &amp; Jerry&apos;s&lt;/p&gt;" );
+		assertThat( XmlEscaper.escape( "a\u0001b\u007Fc\u0085d" ) ).isEqualTo( "a&#1;b&#127;c\u0085d" );
+	}
+
+	@DisplayName( "Test the characters XML cannot represent are dropped" )
+	@Test
+	public void testDropsInvalid() {
+		assertThat( XmlEscaper.escape( "a\u0000b\uFFFEc\uFFFFd" ) ).isEqualTo( "abcd" );
+		assertThat( XmlEscaper.escape( "lone \uD83D high, lone \uDE00 low" ) ).isEqualTo( "lone  high, lone  low" );
+	}
+
+	@DisplayName( "Test CDATA sections are split around ]]>" )
+	@Test
+	public void testCdataSections() {
+		assertThat( XmlEscaper.cdataSections( "<p>fine</p>" ) ).containsExactly( "<p>fine</p>" );
+		assertThat( XmlEscaper.cdataSections( "a]]>b" ) ).containsExactly( "a]]", ">b" ).inOrder();
+		assertThat( XmlEscaper.cdataSections( "]]>]]>" ) ).containsExactly( "]]", ">]]", ">" ).inOrder();
+		assertThat( String.join( "", XmlEscaper.cdataSections( "x]]>y]]>z" ) ) ).isEqualTo( "x]]>y]]>z" );
+	}
+
+}
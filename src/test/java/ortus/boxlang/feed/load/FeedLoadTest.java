@@ -0,0 +1,200 @@
+/**
+ * [BoxLang]
+ *
+ * Copyright [2023] [Ortus Solutions, Corp]
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the
+ * License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS"
+ * BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package ortus.boxlang.feed.load;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.BaseIntegrationTest;
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.feed.FeedTestServer;
+import ortus.boxlang.runtime.context.ScriptingRequestBoxContext;
+import ortus.boxlang.runtime.scopes.IScope;
+import ortus.boxlang.runtime.scopes.Key;
+import ortus.boxlang.runtime.scopes.VariablesScope;
+
+/**
+ * Calls {@code rss()} and {@code bx:feed} from many threads at once against an embedded feed server, and reports throughput,
+ * p50/p99 latency and errors. Runs fully offline. Run with {@code ./gradlew loadTest}, tuned through system properties:
+ * <ul>
+ * <li>{@code bxrss.load.threads} - concurrent callers (default 16)</li>
+ * <li>{@code bxrss.load.requests} - total calls (default 400)</li>
+ * <li>{@code bxrss.load.feeds} - distinct feeds served (default 8)</li>
+ * <li>{@code bxrss.load.items} - items of the smallest feed; feed {@code n} has {@code n} more (default 200)</li>
+ * <li>{@code bxrss.load.latencyMs} - upstream latency before each response (default 20)</li>
+ * <li>{@code bxrss.load.errorRate} - fraction of the responses that are HTTP 500 errors (default 0.05)</li>
+ * </ul>
+ * Every feed has a different number of items, so a call that gets another call's items, through state shared in the readers,
+ * is caught as a wrong result and fails the run. Upstream errors are expected and only reported.
+ */
+@Tag( "loadTest" )
+public class FeedLoadTest extends BaseIntegrationTest {
+
+	private static final int		THREADS		= Integer.getInteger( "bxrss.load.threads", 16 );
+	private static final int		REQUESTS	= Integer.getInteger( "bxrss.load.requests", 400 );
+	private static final int		FEEDS		= Integer.getInteger( "bxrss.load.feeds", 8 );
+	private static final int		ITEMS		= Integer.getInteger( "bxrss.load.items", 200 );
+	private static final long		LATENCY		= Long.getLong( "bxrss.load.latencyMs", 20 );
+	private static final double		ERROR_RATE	= Double.parseDouble( System.getProperty( "bxrss.load.errorRate", "0.05" ) );
+
+	// The calls, used round robin; each sets 'count' to the number of items returned
+	private static final String[]	SCRIPTS		= {
+	    "count = rss( urls = feedUrl, sortBy = 'none' ).items.size()",
+	    "count = rss( urls = feedUrl, itunes = true ).items.size()",
+	    "count = rss( urls = feedUrl, maxItems = 500, filter = { hasEnclosure : true } ).items.size()",
+	    "count = rss( urls = feedUrl, sortBy = 'none', maxItems = 50 ).items.size()",
+	    "bx:feed action=\"read\" source=\"#feedUrl#\" result=\"feedData\"; count = feedData.items.size()"
+	};
+
+	private static FeedTestServer	server;
+	private static List<String>		urls;
+
+	@BeforeAll
+	public static void startServer() throws IOException {
+		server	= FeedTestServer.start();
+		urls	= new ArrayList<>();
+		for ( int i = 0; i < FEEDS; i++ ) {
+			String path = "/feed-" + i + ".xml";
+			server.serve( path, FeedFixtures.rss( ITEMS + i ), 64 * 1024, 0 )
+			    .setLatency( LATENCY )
+			    .setErrorRate( ERROR_RATE );
+			urls.add( server.url( path ) );
+		}
+	}
+
+	@AfterAll
+	public static void stopServer() {
+		server.close();
+	}
+
+	@DisplayName( "Load test rss() and bx:feed from many threads against the embedded feed server" )
+	@Test
+	public void loadTest() throws Exception {
+		long[]							latencies		= new long[ REQUESTS ];
+		AtomicInteger					upstreamErrors	= new AtomicInteger();
+		ConcurrentLinkedQueue<String>	wrongResults	= new ConcurrentLinkedQueue<>();
+		ExecutorService					executor		= Executors.newFixedThreadPool( THREADS );
+
+		// One call per feed and script first, so the measured run does not include the warm-up
+		for ( int i = 0; i < SCRIPTS.length; i++ ) {
+			try {
+				call( urls.get( i % FEEDS ), SCRIPTS[ i ] );
+			} catch ( RuntimeException e ) {
+				// An injected upstream error
+			}
+		}
+
+		long	injectedBefore	= totalInjectedErrors();
+		long	start			= System.nanoTime();
+		try {
+			List<Future<?>> calls = new ArrayList<>( REQUESTS );
+			for ( int i = 0; i < REQUESTS; i++ ) {
+				int request = i;
+				calls.add( executor.submit( () -> {
+					int		feed		= request % FEEDS;
+					String	script		= SCRIPTS[ request % SCRIPTS.length ];
+					int		expected	= expectedCount( script, ITEMS + feed );
+					long	callStart	= System.nanoTime();
+					try {
+						int count = call( urls.get( feed ), script );
+						if ( count == 0 ) {
+							// Failed feeds come back empty from multi-feed reads
+							upstreamErrors.incrementAndGet();
+						} else if ( count != expected ) {
+							wrongResults.add( "[" + script + "] on feed " + feed + ": " + count + " items, expected " + expected );
+						}
+					} catch ( RuntimeException e ) {
+						upstreamErrors.incrementAndGet();
+					} finally {
+						latencies[ request ] = System.nanoTime() - callStart;
+					}
+				} ) );
+			}
+			for ( Future<?> call : calls ) {
+				call.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		long	elapsed		= System.nanoTime() - start;
+		long	injected	= totalInjectedErrors() - injectedBefore;
+
+		Arrays.sort( latencies );
+		System.out.printf(
+		    "Load test (%d threads, %,d calls, %d feeds of %d+ items, %d ms latency, %.0f%% error rate): "
+		        + "%.1f calls/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d upstream errors (%d injected), %d wrong results%n",
+		    THREADS, REQUESTS, FEEDS, ITEMS, LATENCY, ERROR_RATE * 100,
+		    REQUESTS / ( elapsed / 1e9 ), percentile( latencies, 0.50 ), percentile( latencies, 0.99 ), percentile( latencies, 1.0 ),
+		    upstreamErrors.get(), injected, wrongResults.size()
+		);
+		wrongResults.stream().limit( 10 ).forEach( System.out::println );
+
+		assertThat( wrongResults ).isEmpty();
+		// Every failed call comes from an injected error; the circuits serve some of them from the last good items
+		assertThat( ( long ) upstreamErrors.get() ).isAtMost( injected );
+	}
+
+	/**
+	 * Run a script for a feed in its own request context, as a web request would.
+	 *
+	 * @return The item count the script produced
+	 */
+	private static int call( String url, String script ) {
+		ScriptingRequestBoxContext	requestContext	= new ScriptingRequestBoxContext();
+		IScope						scope			= requestContext.getScopeNearby( VariablesScope.name );
+		scope.put( Key.of( "feedUrl" ), url );
+		runtime.executeSource( script, requestContext );
+		return ( ( Number ) scope.get( Key.of( "count" ) ) ).intValue();
+	}
+
+	/**
+	 * The item count a script returns for a feed of the given size: every third item has an enclosure.
+	 */
+	private static int expectedCount( String script, int items ) {
+		if ( script.contains( "hasEnclosure" ) ) {
+			return Math.min( 500, ( items + 2 ) / 3 );
+		}
+		return script.contains( "maxItems = 50 " ) ? Math.min( 50, items ) : items;
+	}
+
+	private static long totalInjectedErrors() {
+		long total = 0;
+		for ( String url : urls ) {
+			total += server.route( url.substring( url.lastIndexOf( '/' ) ) ).errors();
+		}
+		return total;
+	}
+
+	private static double percentile( long[] sorted, double p ) {
+		int index = ( int ) Math.ceil( p * sorted.length ) - 1;
+		return sorted[ Math.max( 0, Math.min( sorted.length - 1, index ) ) ] / 1e6;
+	}
+
+}
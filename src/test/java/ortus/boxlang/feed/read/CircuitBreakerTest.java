@@ -0,0 +1,260 @@
+package ortus.boxlang.feed.read;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.apptasticsoftware.rssreader.Item;
+
+import ortus.boxlang.feed.FeedFixtures;
+import ortus.boxlang.feed.FeedTestServer;
+
+public class CircuitBreakerTest {
+
+	/**
+	 * A clock that only moves when told to
+	 */
+	private static final class FakeClock extends Clock {
+
+		private Instant now = Instant.parse( "2026-01-01T00:00:00Z" );
+
+		void advance( Duration duration ) {
+			now = now.plus( duration );
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone( ZoneId zone ) {
+			return this;
+		}
+	}
+
+	private FakeClock		clock;
+	private CircuitBreaker	circuit;
+
+	@BeforeEach
+	public void setup() {
+		clock	= new FakeClock();
+		circuit	= new CircuitBreaker( "https://example.com/feed.xml", 3, Duration.ofSeconds( 60 ), clock );
+	}
+
+	@DisplayName( "Test the circuit opens after the failure threshold and refuses requests during the cool-down" )
+	@Test
+	public void testOpensAfterThreshold() {
+		for ( int i = 0; i < 2; i++ ) {
+			assertThat( circuit.tryAcquire() ).isTrue();
+			circuit.onFailure( new IOException( "HTTP 503" ) );
+		}
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.CLOSED );
+
+		assertThat( circuit.tryAcquire() ).isTrue();
+		circuit.onFailure( new IOException( "HTTP 503" ) );
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.OPEN );
+		assertThat( circuit.lastError() ).isEqualTo( "HTTP 503" );
+		assertThat( circuit.retryAt() ).isEqualTo( clock.instant().plusSeconds( 60 ) );
+
+		clock.advance( Duration.ofSeconds( 59 ) );
+		assertThat( circuit.tryAcquire() ).isFalse();
+	}
+
+	@DisplayName( "Test a success resets the consecutive failures" )
+	@Test
+	public void testSuccessResetsFailures() {
+		circuit.onFailure( new IOException( "timeout" ) );
+		circuit.onFailure( new IOException( "timeout" ) );
+		circuit.onSuccess();
+		circuit.onFailure( new IOException( "timeout" ) );
+
+		assertThat( circuit.failures() ).isEqualTo( 1 );
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.CLOSED );
+	}
+
+	@DisplayName( "Test a single probe is let through after the cool-down and closes the circuit when it succeeds" )
+	@Test
+	public void testProbeCloses() {
+		open();
+		clock.advance( Duration.ofSeconds( 60 ) );
+
+		assertThat( circuit.tryAcquire() ).isTrue();
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.HALF_OPEN );
+		assertThat( circuit.tryAcquire() ).isFalse();
+
+		circuit.onSuccess();
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.CLOSED );
+		assertThat( circuit.failures() ).isEqualTo( 0 );
+		assertThat( circuit.tryAcquire() ).isTrue();
+	}
+
+	@DisplayName( "Test a failed probe opens the circuit for another cool-down" )
+	@Test
+	public void testFailedProbeReopens() {
+		open();
+		clock.advance( Duration.ofSeconds( 61 ) );
+
+		assertThat( circuit.tryAcquire() ).isTrue();
+		circuit.onFailure( new IOException( "still down" ) );
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.OPEN );
+		assertThat( circuit.retryAt() ).isEqualTo( clock.instant().plusSeconds( 60 ) );
+
+		clock.advance( Duration.ofSeconds( 30 ) );
+		assertThat( circuit.tryAcquire() ).isFalse();
+		clock.advance( Duration.ofSeconds( 30 ) );
+		assertThat( circuit.tryAcquire() ).isTrue();
+	}
+
+	@DisplayName( "Test a released probe counts neither a success nor a failure and lets the next probe through" )
+	@Test
+	public void testReleasedProbe() {
+		open();
+		clock.advance( Duration.ofSeconds( 61 ) );
+
+		assertThat( circuit.tryAcquire() ).isTrue();
+		assertThat( circuit.tryAcquire() ).isFalse();
+		circuit.release();
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.HALF_OPEN );
+		assertThat( circuit.failures() ).isEqualTo( 3 );
+		assertThat( circuit.tryAcquire() ).isTrue();
+	}
+
+	@DisplayName( "Test a metered read cancelled while it holds the probe releases the circuit" )
+	@Test
+	public void testCancelledFetchReleasesProbe() throws Exception {
+		Path			feed		= Files.createTempFile( "bxrss-probe", ".xml" );
+		String			url			= feed.toString();
+		CircuitRegistry	registry	= new CircuitRegistry( clock ).setFailureThreshold( 1 ).setCooldown( 60 );
+		Files.delete( feed );
+		try {
+			assertThat( FeedFetcher.of( Readers.rss(), List.of( url ) ).setCircuits( registry ).stream().toList() ).isEmpty();
+			assertThat( registry.circuit( url ).state() ).isEqualTo( CircuitBreaker.State.OPEN );
+
+			clock.advance( Duration.ofSeconds( 61 ) );
+			FeedFixtures.writeRss( feed, 5 );
+			ReadCancellation cancellation = ReadCancellation.create();
+			try {
+				cancellation.enter();
+				try ( Stream<Item> items = FeedFetcher.of( Readers.rss(), List.of( url ) ).setCircuits( registry ).stream() ) {
+					Iterator<Item> iterator = items.iterator();
+					iterator.next();
+					assertThat( registry.circuit( url ).state() ).isEqualTo( CircuitBreaker.State.HALF_OPEN );
+					cancellation.cancel();
+				}
+			} finally {
+				cancellation.exit();
+			}
+		} finally {
+			Files.deleteIfExists( feed );
+		}
+
+		// Neither closed by a success nor reopened by a failure, and the next probe goes through
+		CircuitBreaker probed = registry.circuit( url );
+		assertThat( probed.state() ).isEqualTo( CircuitBreaker.State.HALF_OPEN );
+		assertThat( probed.failures() ).isEqualTo( 1 );
+		assertThat( probed.tryAcquire() ).isTrue();
+	}
+
+	@DisplayName( "Test a circuit read cancelled while it holds the probe releases the circuit" )
+	@Test
+	public void testCancelledCircuitReadReleasesProbe() throws Exception {
+		try ( FeedTestServer server = FeedTestServer.start() ) {
+			FeedTestServer.Route	route		= server.serve( "/probe.xml", FeedFixtures.rss( 3 ), 64 * 1024, 0 ).setErrorRate( 1 );
+			String					url			= server.url( "/probe.xml" );
+			CircuitRegistry			registry	= new CircuitRegistry( clock ).setFailureThreshold( 1 ).setCooldown( 60 );
+			assertThat( registry.read( Readers.rss(), List.of( url ) ).status().get( url ) ).isEqualTo( CircuitRegistry.FAILED );
+			assertThat( registry.circuit( url ).state() ).isEqualTo( CircuitBreaker.State.OPEN );
+
+			clock.advance( Duration.ofSeconds( 61 ) );
+			route.setErrorRate( 0 ).setLatency( 2_000 );
+			ReadCancellation cancellation = ReadCancellation.create();
+			CompletableFuture<Void> read = CompletableFuture.runAsync( () -> {
+				try {
+					cancellation.enter();
+					registry.read( Readers.rss(), List.of( url ) );
+				} finally {
+					cancellation.exit();
+				}
+			} );
+			while ( route.requests() < 2 ) {
+				Thread.sleep( 10 );
+			}
+			cancellation.cancel();
+			ExecutionException error = assertThrows( ExecutionException.class, () -> read.get( 10, TimeUnit.SECONDS ) );
+			assertThat( error.getCause() ).isInstanceOf( CancellationException.class );
+
+			CircuitBreaker probed = registry.circuit( url );
+			assertThat( probed.state() ).isEqualTo( CircuitBreaker.State.HALF_OPEN );
+			assertThat( probed.failures() ).isEqualTo( 1 );
+			assertThat( probed.tryAcquire() ).isTrue();
+		}
+	}
+
+	@DisplayName( "Test the last good items are bounded, the least recently read feeds being evicted first" )
+	@Test
+	public void testLastGoodEviction() throws Exception {
+		CircuitRegistry	registry	= new CircuitRegistry( clock ).setMaxStaleItems( 10 );
+		List<Path>		feeds		= List.of(
+		    Files.createTempFile( "bxrss-stale", ".xml" ),
+		    Files.createTempFile( "bxrss-stale", ".xml" ),
+		    Files.createTempFile( "bxrss-stale", ".xml" )
+		);
+		try {
+			for ( Path feed : feeds ) {
+				FeedFixtures.writeRss( feed, 5 );
+			}
+			String	first	= feeds.get( 0 ).toString();
+			String	second	= feeds.get( 1 ).toString();
+			String	third	= feeds.get( 2 ).toString();
+			registry.read( Readers.rss(), List.of( first, second ) );
+			assertThat( registry.lastGood( Readers.rss(), first ) ).hasSize( 5 );
+
+			// The first feed was used last, so the second one makes room for the third
+			registry.read( Readers.rss(), List.of( third ) );
+			assertThat( registry.lastGood( Readers.rss(), first ) ).hasSize( 5 );
+			assertThat( registry.lastGood( Readers.rss(), second ) ).isNull();
+			assertThat( registry.lastGood( Readers.rss(), third ) ).hasSize( 5 );
+
+			registry.setMaxStaleItems( 0 );
+			assertThat( registry.lastGood( Readers.rss(), third ) ).isNull();
+		} finally {
+			for ( Path feed : feeds ) {
+				Files.deleteIfExists( feed );
+			}
+		}
+	}
+
+	private void open() {
+		for ( int i = 0; i < 3; i++ ) {
+			circuit.tryAcquire();
+			circuit.onFailure( new IOException( "down" ) );
+		}
+		assertThat( circuit.state() ).isEqualTo( CircuitBreaker.State.OPEN );
+	}
+
+}
@@ -0,0 +1,42 @@
+package ortus.boxlang.feed.read;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ReadCancellationTest {
+
+	@DisplayName( "A read cancelled before it starts is not bound to the thread" )
+	@Test
+	public void testCancelledBeforeEnter() {
+		ReadCancellation cancellation = ReadCancellation.create();
+		cancellation.cancel();
+
+		assertThrows( CancellationException.class, cancellation::enter );
+		assertThat( ReadCancellation.current() ).isNull();
+		assertThat( Thread.currentThread().isInterrupted() ).isFalse();
+	}
+
+	@DisplayName( "A read is the current cancellation of its thread until it exits" )
+	@Test
+	public void testEnterExit() {
+		ReadCancellation cancellation = ReadCancellation.create();
+		try {
+			cancellation.enter();
+			assertThat( ReadCancellation.current() ).isSameInstanceAs( cancellation );
+
+			cancellation.cancel();
+			assertThat( Thread.currentThread().isInterrupted() ).isTrue();
+			assertThrows( CancellationException.class, cancellation::check );
+		} finally {
+			cancellation.exit();
+		}
+		assertThat( ReadCancellation.current() ).isNull();
+		assertThat( Thread.currentThread().isInterrupted() ).isFalse();
+	}
+
+}
@@ -0,0 +1,179 @@
+package ortus.boxlang.feed.websub;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ortus.boxlang.feed.WebSubTestHub;
+import ortus.boxlang.runtime.types.Struct;
+import ortus.boxlang.runtime.types.exceptions.BoxIOException;
+
+public class WebSubSubscriberTest {
+
+	private static final String	TOPIC		= "https://example.com/feed.xml";
+	private static final String	CALLBACK	= "https://app.example.com/websub";
+
+	/**
+	 * A clock that only moves when told to
+	 */
+	private static final class FakeClock extends Clock {
+
+		private Instant now = Instant.parse( "2026-01-01T00:00:00Z" );
+
+		void advance( Duration duration ) {
+			now = now.plus( duration );
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone( ZoneId zone ) {
+			return this;
+		}
+	}
+
+	private FakeClock			clock;
+	private WebSubTestHub		hub;
+	private WebSubSubscriber	subscriber;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		clock		= new FakeClock();
+		hub			= WebSubTestHub.start();
+		subscriber	= new WebSubSubscriber( clock )
+		    .setLeaseSeconds( 600 )
+		    .setRenewBefore( 60 )
+		    .setFallbackPoll( 300 );
+	}
+
+	@AfterEach
+	public void teardown() {
+		subscriber.stop();
+		hub.close();
+	}
+
+	@DisplayName( "Test a subscription is requested with a secret, verified by echoing the challenge, and renewed once before its lease expires" )
+	@Test
+	public void testVerificationAndRenewal() {
+		WebSubSubscriber.Subscription subscription = subscribe();
+		Map<String, String> request = hub.last();
+		assertThat( request.get( "hub.mode" ) ).isEqualTo( "subscribe" );
+		assertThat( request.get( "hub.topic" ) ).isEqualTo( TOPIC );
+		assertThat( request.get( "hub.callback" ) ).isEqualTo( CALLBACK + "?subscription=" + subscription.id() );
+		assertThat( request.get( "hub.lease_seconds" ) ).isEqualTo( "600" );
+		assertThat( request.get( "hub.secret" ) ).hasLength( 64 );
+		assertThat( subscription.state() ).isEqualTo( WebSubSubscriber.PENDING );
+
+		// A challenge for another topic is refused
+		assertThat( subscriber.verify( params( subscription.id(), "subscribe", "https://example.com/other.xml", "nope" ) ).status() ).isEqualTo( 404 );
+
+		WebSubSubscriber.Verification verification = subscriber.verify( params( subscription.id(), "subscribe", TOPIC, "abc123" ) );
+		assertThat( verification.status() ).isEqualTo( 200 );
+		assertThat( verification.body() ).isEqualTo( "abc123" );
+		assertThat( subscriber.find( TOPIC ).state() ).isEqualTo( WebSubSubscriber.ACTIVE );
+		assertThat( subscriber.renewDue() ).isEqualTo( 0 );
+
+		clock.advance( Duration.ofSeconds( 540 ) );
+		assertThat( subscriber.renewDue() ).isEqualTo( 1 );
+		assertThat( hub.requests() ).hasSize( 2 );
+		assertThat( hub.last().get( "hub.secret" ) ).isEqualTo( request.get( "hub.secret" ) );
+		assertThat( subscriber.renewDue() ).isEqualTo( 0 );
+
+		// Not verified again before the end of the lease
+		clock.advance( Duration.ofSeconds( 60 ) );
+		subscriber.renewDue();
+		assertThat( subscriber.find( TOPIC ).state() ).isEqualTo( WebSubSubscriber.EXPIRED );
+	}
+
+	@DisplayName( "Test a distribution is parsed only when its signature matches the subscription secret" )
+	@Test
+	public void testSignedDistribution() throws Exception {
+		WebSubSubscriber.Subscription subscription = subscribe();
+		subscriber.verify( params( subscription.id(), "subscribe", TOPIC, "abc123" ) );
+		String	secret	= hub.last().get( "hub.secret" );
+		String	body	= WebSubTestHub.feed( hub.url(), TOPIC, "Pushed one", "Pushed two" );
+
+		WebSubSubscriber.Delivery delivery = subscriber.deliver( subscription.id(), body, WebSubTestHub.sign( secret, body ) );
+		assertThat( delivery.accepted() ).isTrue();
+		assertThat( delivery.status() ).isEqualTo( 200 );
+		assertThat( delivery.items() ).hasSize( 2 );
+		assertThat( delivery.items().get( 0 ).getTitle().orElse( "" ) ).isEqualTo( "Pushed one" );
+		assertThat( delivery.subscription().deliveries() ).isEqualTo( 1 );
+
+		WebSubSubscriber.Delivery forged = subscriber.deliver( subscription.id(), body, WebSubTestHub.sign( "not-the-secret", body ) );
+		assertThat( forged.status() ).isEqualTo( 200 );
+		assertThat( forged.accepted() ).isFalse();
+		assertThat( forged.items() ).isEmpty();
+		assertThat( subscriber.deliver( subscription.id(), body, null ).accepted() ).isFalse();
+		assertThat( subscriber.deliver( "unknown", body, WebSubTestHub.sign( secret, body ) ).status() ).isEqualTo( 404 );
+	}
+
+	@DisplayName( "Test a subscribed feed is only due for a poll when nothing was pushed for the fallback interval" )
+	@Test
+	public void testPollFallback() throws Exception {
+		WebSubSubscriber.Subscription subscription = subscribe();
+		assertThat( subscriber.pollDue( TOPIC ) ).isTrue();
+
+		subscriber.verify( params( subscription.id(), "subscribe", TOPIC, "abc123" ) );
+		assertThat( subscriber.pollDue( TOPIC ) ).isFalse();
+
+		clock.advance( Duration.ofSeconds( 300 ) );
+		assertThat( subscriber.pollDue( TOPIC ) ).isTrue();
+
+		String body = WebSubTestHub.feed( hub.url(), TOPIC, "Pushed one" );
+		subscriber.deliver( subscription.id(), body, WebSubTestHub.sign( hub.last().get( "hub.secret" ), body ) );
+		assertThat( subscriber.pollDue( TOPIC ) ).isFalse();
+		assertThat( subscriber.pollDue( "https://example.com/unsubscribed.xml" ) ).isTrue();
+	}
+
+	@DisplayName( "Test an unsubscription is dropped once verified, and a refused subscription is not kept" )
+	@Test
+	public void testUnsubscribeAndRefusal() {
+		WebSubSubscriber.Subscription subscription = subscribe();
+		subscriber.verify( params( subscription.id(), "subscribe", TOPIC, "abc123" ) );
+
+		assertThat( subscriber.unsubscribe( TOPIC ).state() ).isEqualTo( WebSubSubscriber.UNSUBSCRIBING );
+		assertThat( hub.last().get( "hub.mode" ) ).isEqualTo( "unsubscribe" );
+		assertThat( hub.last() ).doesNotContainKey( "hub.secret" );
+		assertThat( subscriber.verify( params( subscription.id(), "unsubscribe", TOPIC, "bye" ) ).body() ).isEqualTo( "bye" );
+		assertThat( subscriber.find( TOPIC ) ).isNull();
+
+		hub.setStatus( 400 );
+		assertThrows( BoxIOException.class, this::subscribe );
+		assertThat( subscriber.find( TOPIC ) ).isNull();
+	}
+
+	private WebSubSubscriber.Subscription subscribe() {
+		return subscriber.subscribe( TOPIC, hub.url(), CALLBACK, 0, false, null );
+	}
+
+	private static Struct params( String id, String mode, String topic, String challenge ) {
+		Struct params = new Struct();
+		params.put( "subscription", id );
+		params.put( "hub.mode", mode );
+		params.put( "hub.topic", topic );
+		params.put( "hub.challenge", challenge );
+		params.put( "hub.lease_seconds", "600" );
+		return params;
+	}
+
+}